@@ -0,0 +1,46 @@
+import montecarlo.Experiment;
+import montecarlo.MonteCarloSimulation;
+import statistics.StatCollector;
+
+import java.util.SplittableRandom;
+
+// Compares the number of runs and the time needed to reach a given half width with and without antithetic variates
+public class AntitheticComparison {
+
+    public static void main(String[] args) {
+        double level = 0.95;
+        long seed = 0x1350185;
+
+        String[] names = {"GoBigOrGoHome", "GAcceptReject", "GUniformSample", "GTriangleSample"};
+        Experiment[] experiments = {
+                new GoBigOrGoHome(18.0 / 37.0, 5),
+                new GAcceptReject(0, 6, 2),
+                new GUniformSample(0, 6, 2),
+                new GTriangleSample(6)
+        };
+        double[] maxHalfWidths = {0.0005, 0.002, 0.002, 0.002};
+
+        for (int i = 0; i < experiments.length; i++) {
+            System.out.printf("*************************************%n  %s (target half width %.4f)%n*************************************%n", names[i], maxHalfWidths[i]);
+
+            StatCollector stat = new StatCollector();
+            long start = System.currentTimeMillis();
+            MonteCarloSimulation.simulateTillGivenCIHalfWidth(experiments[i], level, maxHalfWidths[i], 1_000_000, 100_000, new SplittableRandom(seed), stat);
+            long end = System.currentTimeMillis();
+            report("Independent runs", stat.getNumberOfObs(), stat, level, end - start);
+
+            stat = new StatCollector();
+            start = System.currentTimeMillis();
+            MonteCarloSimulation.simulateTillGivenCIHalfWidthAntithetic(experiments[i], level, maxHalfWidths[i], 500_000, 50_000, new SplittableRandom(seed), stat);
+            end = System.currentTimeMillis();
+            report("Antithetic pairs", 2 * stat.getNumberOfObs(), stat, level, end - start);
+        }
+    }
+
+    private static void report(String name, long runs, StatCollector stat, double level, long time) {
+        System.out.printf("%s%n", name);
+        System.out.printf("- Number of runs:  %d%n", runs);
+        System.out.printf("- C.I. (95%%):      %.5f +/- %.6f%n", stat.getAverage(), stat.getConfidenceIntervalHalfWidth(level));
+        System.out.printf("- Time taken (ms): %d%n%n", time);
+    }
+}
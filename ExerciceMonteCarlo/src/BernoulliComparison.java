@@ -0,0 +1,62 @@
+import montecarlo.Experiment;
+import montecarlo.MonteCarloSimulation;
+import statistics.BernoulliCollector;
+import statistics.StatCollector;
+
+import java.util.SplittableRandom;
+
+// Compares the general collector with the Bernoulli collector on the experiments returning only two values
+public class BernoulliComparison {
+
+    public static void main(String[] args) {
+        double level = 0.95;
+        long seed = 0x1350185;
+
+        String[] names = {"GoBigOrGoHome", "GAcceptReject"};
+        Experiment[] experiments = {
+                new GoBigOrGoHome(18.0 / 37.0, 5),
+                new GAcceptReject(0, 6, 2)
+        };
+        double[] successValues = {1.0, 12.0};
+        double[] maxHalfWidths = {0.0005, 0.002};
+
+        for (int i = 0; i < experiments.length; i++) {
+            System.out.printf("*************************************%n  %s (target half width %.4f)%n*************************************%n", names[i], maxHalfWidths[i]);
+
+            StatCollector[] stats = {
+                    new StatCollector(),
+                    new BernoulliCollector(successValues[i], BernoulliCollector.Interval.WILSON),
+                    new BernoulliCollector(successValues[i], BernoulliCollector.Interval.CLOPPER_PEARSON)
+            };
+            String[] statNames = {"StatCollector", "Bernoulli (Wilson)", "Bernoulli (Clopper-Pearson)"};
+
+            for (int j = 0; j < stats.length; j++) {
+                long start = System.currentTimeMillis();
+                MonteCarloSimulation.simulateTillGivenCIHalfWidth(experiments[i], level, maxHalfWidths[i], 1_000_000, 100_000, new SplittableRandom(seed), stats[j]);
+                long end = System.currentTimeMillis();
+
+                System.out.printf("%s%n", statNames[j]);
+                System.out.printf("- Number of runs:  %d%n", stats[j].getNumberOfObs());
+                System.out.printf("- Average:         %.5f%n", stats[j].getAverage());
+                System.out.printf("- C.I. half width: %.6f%n", stats[j].getConfidenceIntervalHalfWidth(level));
+                System.out.printf("- Time taken (ms): %d%n%n", end - start);
+            }
+
+            // Cost of collecting the observations alone
+            double[] values = new double[4096];
+            SplittableRandom rnd = new SplittableRandom(seed);
+            for (int k = 0; k < values.length; k++) {
+                values[k] = experiments[i].execute(rnd);
+            }
+            for (int j = 0; j < 2; j++) {
+                long start = System.nanoTime();
+                for (int rep = 0; rep < 20_000; rep++) {
+                    stats[j].addAll(values, values.length);
+                }
+                long end = System.nanoTime();
+                System.out.printf("- %-19s addAll: %.2f ns per observation%n", statNames[j], (end - start) / (20_000.0 * values.length));
+            }
+            System.out.println();
+        }
+    }
+}
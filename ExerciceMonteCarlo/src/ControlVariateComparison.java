@@ -0,0 +1,39 @@
+import montecarlo.Experiment;
+import montecarlo.MonteCarloSimulation;
+import statistics.ControlVariateCollector;
+import statistics.StatCollector;
+
+import java.util.SplittableRandom;
+
+// Compares the number of runs and the time needed to reach a given half width with and without control variates
+public class ControlVariateComparison {
+
+    public static void main(String[] args) {
+        double level = 0.95;
+        double maxHalfWidth = 0.001;
+        long seed = 0x1350185;
+
+        Experiment exp = new GUniformSample(0, 6, 2);
+        StatCollector stat = new StatCollector();
+        long start = System.currentTimeMillis();
+        MonteCarloSimulation.simulateTillGivenCIHalfWidth(exp, level, maxHalfWidth, 10_000, 10_000, new SplittableRandom(seed), stat);
+        long end = System.currentTimeMillis();
+
+        System.out.printf("Without control variates%n");
+        System.out.printf("- Number of runs:  %d%n", stat.getNumberOfObs());
+        System.out.printf("- C.I. (95%%):      %.5f +/- %.6f%n", stat.getAverage(), stat.getConfidenceIntervalHalfWidth(level));
+        System.out.printf("- Time taken (ms): %d%n%n", end - start);
+
+        GControlVariates controlledExp = new GControlVariates();
+        ControlVariateCollector controlledStat = new ControlVariateCollector(controlledExp.getControlMeans());
+        start = System.currentTimeMillis();
+        MonteCarloSimulation.simulateTillGivenCIHalfWidth(controlledExp, level, maxHalfWidth, 10_000, 10_000, new SplittableRandom(seed), controlledStat);
+        end = System.currentTimeMillis();
+
+        double[] coefficients = controlledStat.getCoefficients();
+        System.out.printf("With control variates (coefficients %.4f, %.4f)%n", coefficients[0], coefficients[1]);
+        System.out.printf("- Number of runs:  %d%n", controlledStat.getNumberOfObs());
+        System.out.printf("- C.I. (95%%):      %.5f +/- %.6f%n", controlledStat.getAverage(), controlledStat.getConfidenceIntervalHalfWidth(level));
+        System.out.printf("- Time taken (ms): %d%n", end - start);
+    }
+}
@@ -1,8 +1,9 @@
-import montecarlo.Experiment;
+import montecarlo.UnitCubeExperiment;
 
 import java.util.Random;
+import java.util.random.RandomGenerator;
 
-public class GAcceptReject implements Experiment {
+public class GAcceptReject implements UnitCubeExperiment {
     double lowerlimit;
     double xlimit;
     double ylimit;
@@ -15,10 +16,15 @@ public class GAcceptReject implements Experiment {
 
     @Override
     public double execute(Random rnd) {
+        return execute((RandomGenerator) rnd);
+    }
+
+    @Override
+    public double execute(RandomGenerator rnd) {
         double x = rnd.nextDouble() * xlimit;
         double y = rnd.nextDouble() * ylimit;
 
-        double gx = Math.pow(Math.E, -(x/8)) * Math.abs(Math.sin((Math.PI * x) / 2)) * Math.sqrt(6 - x);
+        double gx = GIntegrand.g(x);
 
         if (y <= gx) {
             return ylimit * (xlimit - lowerlimit);
@@ -26,4 +32,29 @@ public class GAcceptReject implements Experiment {
             return 0.0;
         }
     }
+
+    @Override
+    public int getDimension() {
+        return 2;
+    }
+
+    @Override
+    public double execute(double[] u) {
+        double x = u[0] * xlimit;
+        double y = u[1] * ylimit;
+
+        return y <= GIntegrand.g(x) ? ylimit * (xlimit - lowerlimit) : 0.0;
+    }
+
+    @Override
+    public void executeBatch(RandomGenerator rnd, double[] out, int len) {
+        // Uniforms are drawn in the same order as in execute, x into out and y into a scratch array
+        double[] y = GIntegrand.scratch(len);
+        for (int i = 0; i < len; i++) {
+            out[i] = rnd.nextDouble() * xlimit;
+            y[i] = rnd.nextDouble() * ylimit;
+        }
+
+        GIntegrand.acceptReject(out, y, ylimit * (xlimit - lowerlimit), out, len);
+    }
 }
@@ -0,0 +1,26 @@
+import montecarlo.ControlledExperiment;
+
+import java.util.random.RandomGenerator;
+
+// Same estimator as GUniformSample, with two controls sharing its most expensive factor |sin(pi * x / 2)|.
+// Since |sin(pi * x / 2)| is symmetric around 3 on [0, 6] and has mean 2 / pi there, for X uniform on [0, 6]:
+//   E[6 |sin(pi X / 2)|]     = 12 / pi
+//   E[6 |sin(pi X / 2)| X]   = 36 / pi
+public class GControlVariates implements ControlledExperiment {
+
+    @Override
+    public double[] getControlMeans() {
+        return new double[]{12 / Math.PI, 36 / Math.PI};
+    }
+
+    @Override
+    public double execute(RandomGenerator rnd, double[] controls) {
+        double x = rnd.nextDouble() * 6;
+
+        double sin = Math.abs(Math.sin((Math.PI * x) / 2));
+        controls[0] = 6 * sin;
+        controls[1] = 6 * sin * x;
+
+        return 6 * Math.exp(-(x/8)) * sin * Math.sqrt(6 - x);
+    }
+}
@@ -0,0 +1,77 @@
+// Integrand g(x) = e^(-x/8) * |sin(pi * x / 2)| * sqrt(6 - x) shared by the GAcceptReject, GUniformSample and
+// GTriangleSample experiments.
+//
+// The batch methods use the SIMD kernels of GIntegrandVector when the jdk.incubator.vector module is available
+// (that is when the JVM is started with --add-modules jdk.incubator.vector) and the ExerciceMonteCarloVector module
+// is on the class path, and fall back to scalar loops otherwise.
+public final class GIntegrand {
+
+    // SIMD kernels, or null if they cannot be used
+    private static final Kernels VECTOR_KERNELS = loadVectorKernels();
+
+    // Whether the Vector API can be used
+    static final boolean VECTORIZED = VECTOR_KERNELS != null;
+
+    // Scratch arrays used by the batch experiments, one per thread since experiments are shared between threads
+    private static final ThreadLocal<double[]> SCRATCH = ThreadLocal.withInitial(() -> new double[0]);
+
+    private GIntegrand() {
+    }
+
+    // Batch methods implemented with the Vector API by GIntegrandVector
+    interface Kernels {
+
+        void evaluate(double[] x, double scale, double[] out, int len);
+
+        void acceptReject(double[] x, double[] y, double hit, double[] out, int len);
+    }
+
+    // GIntegrandVector is loaded by reflection, since it is compiled apart with the incubator module
+    private static Kernels loadVectorKernels() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            return (Kernels) Class.forName("GIntegrandVector").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    static double g(double x) {
+        return Math.exp(-(x/8)) * Math.abs(Math.sin((Math.PI * x) / 2)) * Math.sqrt(6 - x);
+    }
+
+    // Computes out[i] = scale * g(x[i]) for the first len elements, x and out may be the same array
+    static void evaluate(double[] x, double scale, double[] out, int len) {
+        if (VECTORIZED) {
+            VECTOR_KERNELS.evaluate(x, scale, out, len);
+        } else {
+            for (int i = 0; i < len; i++) {
+                out[i] = scale * g(x[i]);
+            }
+        }
+    }
+
+    // Computes out[i] = hit if y[i] <= g(x[i]) and 0 otherwise for the first len elements, x and out may be
+    // the same array
+    static void acceptReject(double[] x, double[] y, double hit, double[] out, int len) {
+        if (VECTORIZED) {
+            VECTOR_KERNELS.acceptReject(x, y, hit, out, len);
+        } else {
+            for (int i = 0; i < len; i++) {
+                out[i] = y[i] <= g(x[i]) ? hit : 0.0;
+            }
+        }
+    }
+
+    // Returns an array of at least len elements owned by the calling thread
+    static double[] scratch(int len) {
+        double[] buffer = SCRATCH.get();
+        if (buffer.length < len) {
+            buffer = new double[len];
+            SCRATCH.set(buffer);
+        }
+        return buffer;
+    }
+}
@@ -1,24 +1,48 @@
 import montecarlo.Experiment;
+import montecarlo.LinearProposal;
 
 import java.util.Random;
+import java.util.random.RandomGenerator;
 
+// Importance sampling estimator of the integral of g over [0, xlimit], drawing x from the density proportional to fx
 public class GTriangleSample implements Experiment {
     double xlimit;
+    LinearProposal proposal;
 
     double fx(double x) {
-        return 1/18 * x + 1/3;
+        return 1.0/18 * x + 1.0/3;
     }
 
     public GTriangleSample(double xlimit) {
         this.xlimit = xlimit;
+        this.proposal = new LinearProposal(0, xlimit, fx(0), fx(xlimit));
     }
 
     @Override
     public double execute(Random rnd) {
-        double x = rnd.nextDouble() * xlimit;
+        return execute((RandomGenerator) rnd);
+    }
+
+    @Override
+    public double execute(RandomGenerator rnd) {
+        double x = proposal.sample(rnd);
+
+        double gx = GIntegrand.g(x);
 
-        double gx = Math.pow(Math.E, -(x/8)) * Math.abs(Math.sin((Math.PI * x) / 2)) * Math.sqrt(6 - x);
+        return gx / proposal.density(x);
+    }
+
+    @Override
+    public void executeBatch(RandomGenerator rnd, double[] out, int len) {
+        double[] density = GIntegrand.scratch(len);
+        for (int i = 0; i < len; i++) {
+            out[i] = proposal.sample(rnd);
+            density[i] = proposal.density(out[i]);
+        }
 
-        return gx * 6;
+        GIntegrand.evaluate(out, 1, out, len);
+        for (int i = 0; i < len; i++) {
+            out[i] /= density[i];
+        }
     }
 }
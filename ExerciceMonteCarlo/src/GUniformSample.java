@@ -1,8 +1,9 @@
-import montecarlo.Experiment;
+import montecarlo.UnitCubeExperiment;
 
 import java.util.Random;
+import java.util.random.RandomGenerator;
 
-public class GUniformSample implements Experiment {
+public class GUniformSample implements UnitCubeExperiment {
     double xlimit;
 
     public GUniformSample(double lowerlimit, double xlimit, int ylimit) {
@@ -11,10 +12,34 @@ public class GUniformSample implements Experiment {
 
     @Override
     public double execute(Random rnd) {
+        return execute((RandomGenerator) rnd);
+    }
+
+    @Override
+    public double execute(RandomGenerator rnd) {
         double x = rnd.nextDouble() * xlimit;
 
-        double gx = Math.pow(Math.E, -(x/8)) * Math.abs(Math.sin((Math.PI * x) / 2)) * Math.sqrt(6 - x);
+        double gx = GIntegrand.g(x);
 
         return gx * 6;
     }
+
+    @Override
+    public int getDimension() {
+        return 1;
+    }
+
+    @Override
+    public double execute(double[] u) {
+        return GIntegrand.g(u[0] * xlimit) * 6;
+    }
+
+    @Override
+    public void executeBatch(RandomGenerator rnd, double[] out, int len) {
+        for (int i = 0; i < len; i++) {
+            out[i] = rnd.nextDouble() * xlimit;
+        }
+
+        GIntegrand.evaluate(out, 6, out, len);
+    }
 }
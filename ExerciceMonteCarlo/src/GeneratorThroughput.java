@@ -0,0 +1,43 @@
+import montecarlo.Experiment;
+import montecarlo.MonteCarloSimulation;
+import montecarlo.RandomGenerators;
+import statistics.StatCollector;
+
+import java.util.random.RandomGenerator;
+
+// Compares the throughput of the experiments with different pseudo-random number generators
+public class GeneratorThroughput {
+
+    public static void main(String[] args) {
+        long numberOfRuns = 20_000_000;
+        long seed = 0x1350185;
+        String[] generators = {"Random", "SplittableRandom", "L64X128MixRandom", "Xoroshiro128PlusPlus", "Xoshiro256PlusPlus"};
+
+        String[] names = {"GoBigOrGoHome", "GAcceptReject", "GUniformSample", "GTriangleSample"};
+        Experiment[] experiments = {
+                new GoBigOrGoHome(18.0 / 37.0, 5),
+                new GAcceptReject(0, 6, 2),
+                new GUniformSample(0, 6, 2),
+                new GTriangleSample(6)
+        };
+
+        for (int i = 0; i < experiments.length; i++) {
+            System.out.printf("*************************************%n  %s (%d runs)%n*************************************%n", names[i], numberOfRuns);
+
+            for (String generator : generators) {
+                // Warm up, so that the JIT compiler does not favor the generators measured last
+                MonteCarloSimulation.simulateNRuns(experiments[i], numberOfRuns / 10, RandomGenerators.create(generator, seed), new StatCollector());
+
+                StatCollector stat = new StatCollector();
+                RandomGenerator rnd = RandomGenerators.create(generator, seed);
+
+                long start = System.nanoTime();
+                MonteCarloSimulation.simulateNRuns(experiments[i], numberOfRuns, rnd, stat);
+                long end = System.nanoTime();
+
+                System.out.printf("- %-21s %8.2f Mruns/s  (mean %.6f)%n", generator, numberOfRuns * 1e3 / (end - start), stat.getAverage());
+            }
+            System.out.println();
+        }
+    }
+}
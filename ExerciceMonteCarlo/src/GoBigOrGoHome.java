@@ -0,0 +1,38 @@
+import montecarlo.Experiment;
+
+import java.util.Random;
+import java.util.random.RandomGenerator;
+
+public class GoBigOrGoHome implements Experiment {
+    double p; // probability of success
+    int f; // starting amount
+
+    public GoBigOrGoHome(double p, int f) {
+        this.p = p;
+        this.f = f;
+    }
+
+    @Override
+    public double execute(Random rnd) {
+        return execute((RandomGenerator) rnd);
+    }
+
+    @Override
+    public double execute(RandomGenerator rnd) {
+        int amount = f;
+        int target = 2 * f;
+
+        while (amount > 0 && amount < target) {
+            // Win
+            if (rnd.nextDouble() < p) {
+                amount++;
+            }
+            // Loss
+            else {
+                amount--;
+            }
+        }
+
+        return amount == target ? 1.0 : 0.0;
+    }
+}
@@ -0,0 +1,26 @@
+import montecarlo.BarrierRandomWalk;
+import montecarlo.Experiment;
+
+import java.util.Random;
+import java.util.random.RandomGenerator;
+
+// Same game as GoBigOrGoHome, but the fortune moves by several bets at once while it is far from 0 and the target
+public class GoBigOrGoHomeMultiStep implements Experiment {
+    int f; // starting amount
+    BarrierRandomWalk walk;
+
+    public GoBigOrGoHomeMultiStep(double p, int f) {
+        this.f = f;
+        this.walk = new BarrierRandomWalk(p, 2 * f, f);
+    }
+
+    @Override
+    public double execute(Random rnd) {
+        return execute((RandomGenerator) rnd);
+    }
+
+    @Override
+    public double execute(RandomGenerator rnd) {
+        return walk.walk(f, rnd) == 2 * f ? 1.0 : 0.0;
+    }
+}
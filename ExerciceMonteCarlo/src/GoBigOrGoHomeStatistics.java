@@ -0,0 +1,45 @@
+import montecarlo.MultiOutputExperiment;
+
+import java.util.random.RandomGenerator;
+
+// GoBigOrGoHome with two outputs per run: whether the target was reached and the number of bets placed, so that
+// the probability of doubling the starting amount and the expected duration of the game come from the same runs
+public class GoBigOrGoHomeStatistics implements MultiOutputExperiment {
+    public static final int DOUBLED = 0;
+    public static final int BETS = 1;
+
+    double p; // probability of success
+    int f; // starting amount
+
+    public GoBigOrGoHomeStatistics(double p, int f) {
+        this.p = p;
+        this.f = f;
+    }
+
+    @Override
+    public int getNumberOfOutputs() {
+        return 2;
+    }
+
+    @Override
+    public void execute(RandomGenerator rnd, double[] outputs) {
+        int amount = f;
+        int target = 2 * f;
+        long bets = 0;
+
+        while (amount > 0 && amount < target) {
+            // Win
+            if (rnd.nextDouble() < p) {
+                amount++;
+            }
+            // Loss
+            else {
+                amount--;
+            }
+            bets++;
+        }
+
+        outputs[DOUBLED] = amount == target ? 1.0 : 0.0;
+        outputs[BETS] = bets;
+    }
+}
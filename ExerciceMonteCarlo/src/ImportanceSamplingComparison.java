@@ -0,0 +1,51 @@
+import montecarlo.ImportanceSampling;
+import montecarlo.LinearProposal;
+import montecarlo.ProposalDistribution;
+import montecarlo.UniformProposal;
+import statistics.ImportanceSamplingCollector;
+
+import java.util.SplittableRandom;
+import java.util.function.DoubleUnaryOperator;
+
+// Compares the number of runs needed to reach a given half width with different proposal distributions, for the
+// integral of g over [0, 6] and for the rare event probability P(X > 5.9) with X of density (6 - x) / 18
+public class ImportanceSamplingComparison {
+
+    public static void main(String[] args) {
+        double level = 0.95;
+        long seed = 0x1350185;
+
+        // Integral of g over [0, 6]: mean of 6 g(X) for X uniform over [0, 6]
+        ProposalDistribution uniform = new UniformProposal(0, 6);
+        DoubleUnaryOperator integrand = x -> 6 * GIntegrand.g(x);
+        String[] names = {"Uniform", "Increasing linear (GTriangleSample)", "Decreasing linear"};
+        ProposalDistribution[] proposals = {uniform, new LinearProposal(0, 6, 1.0 / 3, 2.0 / 3), new LinearProposal(0, 6, 1, 0.1)};
+
+        System.out.printf("*************************************%n  Integral of g over [0, 6]%n*************************************%n");
+        for (int i = 0; i < proposals.length; i++) {
+            ImportanceSamplingCollector stat = new ImportanceSamplingCollector();
+            ImportanceSampling.simulateTillGivenCIHalfWidth(integrand, uniform, proposals[i], level, 0.002, 100_000, 100_000, new SplittableRandom(seed), stat);
+            report(names[i], stat, level);
+        }
+
+        // Rare event: X of density (6 - x) / 18 over [0, 6], P(X > 5.9) = 0.1^2 / 36
+        ProposalDistribution nominal = new LinearProposal(0, 6, 1, 0);
+        DoubleUnaryOperator event = x -> x > 5.9 ? 1.0 : 0.0;
+        names = new String[]{"Nominal", "Uniform", "Increasing linear"};
+        proposals = new ProposalDistribution[]{nominal, uniform, new LinearProposal(0, 6, 0.01, 1)};
+
+        System.out.printf("*************************************%n  P(X > 5.9) = %.4e%n*************************************%n", 0.01 / 36);
+        for (int i = 0; i < proposals.length; i++) {
+            ImportanceSamplingCollector stat = new ImportanceSamplingCollector();
+            ImportanceSampling.simulateTillGivenCIHalfWidth(event, nominal, proposals[i], level, 1e-5, 100_000, 100_000, new SplittableRandom(seed), stat);
+            report(names[i], stat, level);
+        }
+    }
+
+    private static void report(String name, ImportanceSamplingCollector stat, double level) {
+        System.out.printf("%s proposal%n", name);
+        System.out.printf("- Number of runs:        %d%n", stat.getNumberOfObs());
+        System.out.printf("- Effective sample size: %.0f%n", stat.getEffectiveSampleSize());
+        System.out.printf("- C.I. (95%%):            %.6e +/- %.2e%n%n", stat.getAverage(), stat.getConfidenceIntervalHalfWidth(level));
+    }
+}
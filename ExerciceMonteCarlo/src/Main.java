@@ -1,8 +1,10 @@
 import montecarlo.Experiment;
 import montecarlo.MonteCarloSimulation;
+import montecarlo.SimulationProgress;
 import statistics.StatCollector;
 
-import java.util.Random;
+import java.time.Duration;
+import java.util.SplittableRandom;
 
 public class Main {
 
@@ -10,30 +12,22 @@ public class Main {
         double maxHalfWidth = 0.00001;
         double level = 0.95;
         long initialNumberOfRuns = 500_000_000;
+        long runsPerChunk = 1_000_000;
+        int numberOfThreads = Runtime.getRuntime().availableProcessors();
         StatCollector stat = new StatCollector();
 
-        Random rnd = new Random();
-        rnd.setSeed(0x1350185);
-
         Experiment exp = new GAcceptReject(0, 6, 2);
 
-        long start = System.currentTimeMillis();
-        MonteCarloSimulation.simulateNRuns(exp,initialNumberOfRuns, rnd, stat);
-        long end = System.currentTimeMillis();
-
-        // Estimate the number of runs needed for the desired confidence interval half width and the time it would take
-        double currentHalfWidth = stat.getConfidenceIntervalHalfWidth(level);
-        // If the current half-width is already within the limit, no further action is needed
-
-        // Calculate the total number of runs needed using the scaling relationship:
-        // n_needed = n_current * (currentHalfWidth / maxHalfWidth)^2
-        double totalRunsNeeded = initialNumberOfRuns * Math.pow(currentHalfWidth / maxHalfWidth, 2);
-        long additionalRunsNeeded = (long) totalRunsNeeded - initialNumberOfRuns;
+        // Report the throughput and half width every few seconds while the initial runs are simulated
+        SimulationProgress progress = new SimulationProgress(level, maxHalfWidth, Duration.ofSeconds(5));
+        progress.addListener(p -> System.out.printf("%d runs (%.0f runs/s), half width %.8f%n",
+                p.getNumberOfRuns(), p.getRunsPerSecond(), p.getCurrentHalfWidth()));
 
-        // Estimate time for additional runs based on initial run time
-        long estimatedAdditionalTime = (end - start) * additionalRunsNeeded / initialNumberOfRuns;
+        MonteCarloSimulation.simulateNRunsInParallel(exp, initialNumberOfRuns, new SplittableRandom(0x1350185), runsPerChunk, numberOfThreads, stat, progress);
 
-        System.out.println("Total runs needed: " + totalRunsNeeded);
-        System.out.println("Estimated additional time needed (ms): " + estimatedAdditionalTime);
+        // Projections use the scaling relationship n_needed = n_current * (currentHalfWidth / maxHalfWidth)^2
+        Duration remainingTime = progress.getProjectedRemainingTime();
+        System.out.printf("Total runs needed: %.0f%n", progress.getNumberOfRuns() + progress.getProjectedRemainingRuns());
+        System.out.println("Estimated additional time needed (ms): " + (remainingTime == null ? 0 : remainingTime.toMillis()));
 	}
 }
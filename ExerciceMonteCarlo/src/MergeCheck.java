@@ -0,0 +1,78 @@
+import montecarlo.Experiment;
+import montecarlo.MonteCarloSimulation;
+import statistics.BernoulliCollector;
+import statistics.ConcurrentStatCollector;
+import statistics.ObservationWriter;
+import statistics.QuantileSketchCollector;
+import statistics.RecordingStatCollector;
+import statistics.StatCollector;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Validates StatCollector.mergeAll for each kind of collector: merging many partial collectors, into a StatCollector
+// or into a collector of the same kind, should give the same statistics as collecting all the observations at once
+public class MergeCheck {
+    private static final int NUMBER_OF_PARTS = 1000;
+    private static final long RUNS_PER_PART = 10_000;
+
+    public static void main(String[] args) throws IOException {
+        Experiment exp = new GUniformSample(0, 6, 2);
+        Experiment bernoulli = rnd -> rnd.nextDouble() < 0.3 ? 1.0 : 0.0;
+
+        check("StatCollector", exp, StatCollector::new);
+        check("BernoulliCollector", bernoulli, () -> new BernoulliCollector(1.0));
+        check("ConcurrentStatCollector", exp, ConcurrentStatCollector::new);
+        check("QuantileSketchCollector", exp, QuantileSketchCollector::new);
+
+        Path dir = Files.createTempDirectory("merge-check");
+        try (ObservationWriter writer = new ObservationWriter(dir.resolve("observations.bin"), 1 << 20)) {
+            check("RecordingStatCollector", exp, () -> new RecordingStatCollector(writer));
+        } finally {
+            try (Stream<Path> files = Files.walk(dir)) {
+                for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private static void check(String name, Experiment exp, Supplier<? extends StatCollector> factory) {
+        // Each part is simulated twice with the same seed, once in its own collector and once in the single one
+        StatCollector single = factory.get();
+        List<StatCollector> parts = new ArrayList<>();
+        SplittableRandom master = new SplittableRandom(0x1350185);
+        for (int i = 0; i < NUMBER_OF_PARTS; i++) {
+            long seed = master.nextLong();
+            MonteCarloSimulation.simulateNRuns(exp, RUNS_PER_PART, new SplittableRandom(seed), single);
+            StatCollector part = factory.get();
+            MonteCarloSimulation.simulateNRuns(exp, RUNS_PER_PART, new SplittableRandom(seed), part);
+            parts.add(part);
+        }
+        StatCollector merged = StatCollector.mergeAll(parts);
+        StatCollector mergedSameKind = StatCollector.mergeAll(parts, factory);
+
+        System.out.printf("*************************************%n  %s (%d x %d observations)%n*************************************%n", name, NUMBER_OF_PARTS, RUNS_PER_PART);
+        report("Single collector:    ", single);
+        report("Merged:              ", merged);
+        report("Merged, same kind:   ", mergedSameKind);
+        boolean sameCounts = merged.getNumberOfObs() == single.getNumberOfObs() && mergedSameKind.getNumberOfObs() == single.getNumberOfObs();
+        double error = Math.max(relativeError(merged, single), relativeError(mergedSameKind, single));
+        System.out.printf("- Max relative error: %.1e (%s)%n%n", error, sameCounts && error < 1e-12 ? "OK" : "FAILED");
+    }
+
+    private static void report(String label, StatCollector stat) {
+        System.out.printf("- %s%d obs, mean %.12f, variance %.12f%n", label, stat.getNumberOfObs(), stat.getAverage(), stat.getVariance());
+    }
+
+    private static double relativeError(StatCollector stat, StatCollector reference) {
+        return Math.max(Math.abs(stat.getAverage() / reference.getAverage() - 1), Math.abs(stat.getVariance() / reference.getVariance() - 1));
+    }
+}
@@ -0,0 +1,27 @@
+import montecarlo.ShardedSimulation;
+import statistics.StatCollector;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+// Merges the shard files given as arguments into one estimate and C.I.
+public class MergeShards {
+
+    public static void main(String[] args) throws IOException {
+        double level = 0.95;
+        List<Path> shardFiles = new ArrayList<>();
+        for (String arg : args) {
+            shardFiles.add(Paths.get(arg));
+        }
+
+        StatCollector stat = new StatCollector();
+        ShardedSimulation.merge(shardFiles, stat);
+
+        System.out.printf("*************************************%n  %d shard files%n*************************************%n", shardFiles.size());
+        System.out.printf("- Number of runs:  %d%n", stat.getNumberOfObs());
+        System.out.printf("- C.I. (95%%):      %.6f +/- %.6f%n", stat.getAverage(), stat.getConfidenceIntervalHalfWidth(level));
+    }
+}
@@ -0,0 +1,67 @@
+import montecarlo.MonteCarloSimulation;
+import montecarlo.MultiOutputExperiment;
+import statistics.MultivariateStatCollector;
+
+import java.util.SplittableRandom;
+
+// Estimates the probability of doubling the starting amount and the expected number of bets of GoBigOrGoHome,
+// first with a simulation per quantity, then with a single simulation sharing its runs between both quantities
+public class MultiOutputComparison {
+
+    public static void main(String[] args) {
+        double level = 0.95;
+        double p = 18.0 / 37.0;
+        int f = 20;
+        long seed = 0x1350185;
+        double[] maxHalfWidths = {0.001, 0.5};
+        String[] names = {"Probability of doubling", "Expected number of bets"};
+
+        // Exact values of the gambler's ruin problem
+        double q = 1 - p;
+        double r = q / p;
+        double doubled = (1 - Math.pow(r, f)) / (1 - Math.pow(r, 2 * f));
+        double bets = f / (q - p) - 2 * f / (q - p) * doubled;
+        double[] exact = {doubled, bets};
+
+        MultiOutputExperiment exp = new GoBigOrGoHomeStatistics(p, f);
+
+        // Warm up
+        MonteCarloSimulation.simulateNRuns(exp, 100_000, new SplittableRandom(seed + 1), new MultivariateStatCollector(2));
+
+        // One simulation per quantity, the other one having no target
+        long separateRuns = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < names.length; i++) {
+            double[] targets = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+            targets[i] = maxHalfWidths[i];
+            MultivariateStatCollector stat = new MultivariateStatCollector(2);
+            MonteCarloSimulation.simulateTillGivenCIHalfWidth(exp, level, targets, false, 100_000, 100_000,
+                    new SplittableRandom(seed + i), stat);
+            separateRuns += stat.getNumberOfObs();
+            System.out.printf("%s (exact %.6f)%n", names[i], exact[i]);
+            System.out.printf("- C.I. (95%%):       %.6f +/- %.6f%n", stat.getAverage(i), stat.getConfidenceIntervalHalfWidth(i, level));
+            System.out.printf("- Number of runs:   %d%n%n", stat.getNumberOfObs());
+        }
+        long separateTime = System.nanoTime() - start;
+
+        // A single simulation for both quantities, with individual or simultaneous C.I.s
+        for (boolean joint : new boolean[]{false, true}) {
+            MultivariateStatCollector stat = new MultivariateStatCollector(2);
+            start = System.nanoTime();
+            MonteCarloSimulation.simulateTillGivenCIHalfWidth(exp, level, maxHalfWidths, joint, 100_000, 100_000,
+                    new SplittableRandom(seed), stat);
+            long sharedTime = System.nanoTime() - start;
+            double[] halfWidths = joint ? stat.getJointConfidenceIntervalHalfWidths(level)
+                    : new double[]{stat.getConfidenceIntervalHalfWidth(0, level), stat.getConfidenceIntervalHalfWidth(1, level)};
+
+            System.out.printf("*************************************%n  Shared runs, %s C.I.s%n*************************************%n",
+                    joint ? "simultaneous" : "individual");
+            for (int i = 0; i < names.length; i++) {
+                System.out.printf("- %s: %.6f +/- %.6f%n", names[i], stat.getAverage(i), halfWidths[i]);
+            }
+            System.out.printf("- Correlation:      %.4f%n", stat.getCorrelation(0, 1));
+            System.out.printf("- Number of runs:   %d (separate simulations: %d)%n", stat.getNumberOfObs(), separateRuns);
+            System.out.printf("- Time:             %.1f ms (separate simulations: %.1f ms)%n%n", sharedTime / 1e6, separateTime / 1e6);
+        }
+    }
+}
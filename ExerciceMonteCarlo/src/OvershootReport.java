@@ -0,0 +1,53 @@
+import montecarlo.Experiment;
+import montecarlo.MonteCarloSimulation;
+import statistics.StatCollector;
+
+import java.util.Random;
+
+// Compares the number of runs simulated by the sequential and parallel stopping rules with the number of runs
+// actually needed to reach the target half width
+public class OvershootReport {
+
+    public static void main(String[] args) {
+        double level = 0.95;
+        double[] maxHalfWidths = {0.004, 0.002, 0.001};
+        long initialNumberOfRuns = 1_000_000;
+        long additionalNumberOfRuns = 100_000;
+        long runsPerBatch = 10_000;
+        long seed = 0x1350185;
+        int numberOfThreads = Runtime.getRuntime().availableProcessors();
+
+        Experiment exp = new GAcceptReject(0, 6, 2);
+
+        for (double maxHalfWidth : maxHalfWidths) {
+            System.out.printf("*************************************%n  Target half width: %.6f%n*************************************%n", maxHalfWidth);
+
+            StatCollector stat = new StatCollector();
+            Random rnd = new Random(seed);
+            long start = System.currentTimeMillis();
+            MonteCarloSimulation.simulateTillGivenCIHalfWidth(exp, level, maxHalfWidth, initialNumberOfRuns, additionalNumberOfRuns, rnd, stat);
+            long end = System.currentTimeMillis();
+            report("Sequential", stat, level, maxHalfWidth, end - start);
+
+            stat = new StatCollector();
+            start = System.currentTimeMillis();
+            MonteCarloSimulation.simulateTillGivenCIHalfWidthInParallel(exp, level, maxHalfWidth, initialNumberOfRuns, runsPerBatch, seed, numberOfThreads, stat);
+            end = System.currentTimeMillis();
+            report("Parallel (" + numberOfThreads + " threads)", stat, level, maxHalfWidth, end - start);
+        }
+    }
+
+    private static void report(String name, StatCollector stat, double level, double maxHalfWidth, long time) {
+        // Runs that would have sufficed, according to n_needed = n * (halfWidth / maxHalfWidth)^2
+        double halfWidth = stat.getConfidenceIntervalHalfWidth(level);
+        double runsNeeded = stat.getNumberOfObs() * Math.pow(halfWidth / maxHalfWidth, 2);
+        double overshoot = stat.getNumberOfObs() - runsNeeded;
+
+        System.out.printf("%s%n", name);
+        System.out.printf("- Number of runs:  %d%n", stat.getNumberOfObs());
+        System.out.printf("- Runs needed:     %.0f%n", runsNeeded);
+        System.out.printf("- Overshoot:       %.0f (%.2f%%)%n", overshoot, 100.0 * overshoot / runsNeeded);
+        System.out.printf("- C.I. (95%%):      %.5f +/- %.6f%n", stat.getAverage(), halfWidth);
+        System.out.printf("- Time taken (ms): %d%n%n", time);
+    }
+}
@@ -0,0 +1,79 @@
+import montecarlo.Experiment;
+import montecarlo.MonteCarloSimulation;
+import statistics.QuantileSketchCollector;
+import statistics.StatCollector;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Estimates percentiles of the outputs of GTriangleSample with a quantile sketch: compares the estimates with the
+// exact percentiles of the stored outputs, the cost of the sketch with that of a StatCollector, and runs the
+// simulation in parallel, the sketches of the chunks being merged
+public class QuantileSketchReport {
+
+    public static void main(String[] args) {
+        long numberOfRuns = 20_000_000;
+        int numberOfThreads = 4;
+        long runsPerChunk = 1_000_000;
+        double[] orders = {0.01, 0.05, 0.25, 0.5, 0.75, 0.95, 0.99};
+        Experiment exp = new GTriangleSample(6);
+
+        // Warm up
+        MonteCarloSimulation.simulateNRuns(exp, numberOfRuns / 10, new SplittableRandom(1), new QuantileSketchCollector());
+
+        StatCollector stat = new StatCollector();
+        long start = System.nanoTime();
+        MonteCarloSimulation.simulateNRuns(exp, numberOfRuns, new SplittableRandom(0x1350185), stat);
+        long statTime = System.nanoTime() - start;
+
+        QuantileSketchCollector sketch = new QuantileSketchCollector();
+        start = System.nanoTime();
+        MonteCarloSimulation.simulateNRuns(exp, numberOfRuns, new SplittableRandom(0x1350185), sketch);
+        long sketchTime = System.nanoTime() - start;
+
+        // Exact percentiles of the same outputs, which must all be stored
+        double[] outputs = new double[(int) numberOfRuns];
+        exp.executeBatch(new SplittableRandom(0x1350185), outputs, outputs.length);
+        Arrays.sort(outputs);
+
+        System.out.printf("*************************************%n  Quantile sketch (%d runs, k = %d)%n*************************************%n",
+                numberOfRuns, sketch.getK());
+        System.out.printf("- StatCollector:     %.1f Mruns/s%n", numberOfRuns * 1e3 / statTime);
+        System.out.printf("- Sketch:            %.1f Mruns/s, %d observations retained%n", numberOfRuns * 1e3 / sketchTime, sketch.getNumberOfRetainedObs());
+        System.out.printf("- Mean:              %.6f%n", sketch.getAverage());
+        double[] quantiles = sketch.getQuantiles(orders);
+        for (int i = 0; i < orders.length; i++) {
+            double exact = outputs[(int) Math.ceil(orders[i] * numberOfRuns) - 1];
+            System.out.printf("- %2.0f%% percentile:    %.6f (exact %.6f, true rank %.4f)%n", 100 * orders[i], quantiles[i], exact,
+                    (double) countNoGreaterThan(outputs, quantiles[i]) / numberOfRuns);
+        }
+
+        // Each chunk is collected in its own sketch, the sketches being merged in chunk order
+        QuantileSketchCollector merged = new QuantileSketchCollector();
+        start = System.nanoTime();
+        MonteCarloSimulation.simulateNRunsInParallel(exp, numberOfRuns, 0x1350185, runsPerChunk, numberOfThreads, merged);
+        long parallelTime = System.nanoTime() - start;
+
+        System.out.printf("%nMerged sketches of %d chunks on %d threads, %.1f Mruns/s%n", numberOfRuns / runsPerChunk, numberOfThreads,
+                numberOfRuns * 1e3 / parallelTime);
+        quantiles = merged.getQuantiles(orders);
+        for (int i = 0; i < orders.length; i++) {
+            System.out.printf("- %2.0f%% percentile:    %.6f%n", 100 * orders[i], quantiles[i]);
+        }
+    }
+
+    // Number of elements of the sorted array no greater than x
+    private static int countNoGreaterThan(double[] sorted, double x) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] <= x) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
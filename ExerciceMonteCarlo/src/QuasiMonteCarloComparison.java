@@ -0,0 +1,49 @@
+import montecarlo.Experiment;
+import montecarlo.HaltonSequence;
+import montecarlo.MonteCarloSimulation;
+import montecarlo.QuasiMonteCarloSimulation;
+import montecarlo.QuasiRandomSequence;
+import montecarlo.SobolSequence;
+import statistics.StatCollector;
+
+// Compares the half width obtained with the same number of runs by plain Monte Carlo and randomized quasi-Monte
+// Carlo with Halton and Sobol sequences
+public class QuasiMonteCarloComparison {
+
+    public static void main(String[] args) {
+        double level = 0.95;
+        long seed = 0x1350185;
+        long pointsPerRandomization = 1 << 16;
+        long numberOfRandomizations = 64;
+        int numberOfThreads = Runtime.getRuntime().availableProcessors();
+
+        String[] names = {"GUniformSample", "GAcceptReject"};
+        Experiment[] experiments = {new GUniformSample(0, 6, 2), new GAcceptReject(0, 6, 2)};
+        int[] dimensions = {1, 2};
+
+        for (int i = 0; i < experiments.length; i++) {
+            System.out.printf("*************************************%n  %s (%d runs)%n*************************************%n", names[i], pointsPerRandomization * numberOfRandomizations);
+
+            StatCollector stat = new StatCollector();
+            long start = System.currentTimeMillis();
+            MonteCarloSimulation.simulateNRunsInParallel(experiments[i], pointsPerRandomization * numberOfRandomizations, seed, pointsPerRandomization, numberOfThreads, stat);
+            long end = System.currentTimeMillis();
+            report("Monte Carlo", stat, level, end - start);
+
+            QuasiRandomSequence[] sequences = {new HaltonSequence(dimensions[i]), new SobolSequence(dimensions[i])};
+            for (QuasiRandomSequence sequence : sequences) {
+                stat = new StatCollector();
+                start = System.currentTimeMillis();
+                QuasiMonteCarloSimulation.simulate(experiments[i], sequence, pointsPerRandomization, numberOfRandomizations, seed, numberOfThreads, stat);
+                end = System.currentTimeMillis();
+                report("Randomized " + sequence.getClass().getSimpleName(), stat, level, end - start);
+            }
+        }
+    }
+
+    private static void report(String name, StatCollector stat, double level, long time) {
+        System.out.printf("%s%n", name);
+        System.out.printf("- C.I. (95%%):      %.6f +/- %.2e%n", stat.getAverage(), stat.getConfidenceIntervalHalfWidth(level));
+        System.out.printf("- Time taken (ms): %d%n%n", time);
+    }
+}
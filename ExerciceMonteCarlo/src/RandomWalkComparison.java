@@ -0,0 +1,67 @@
+import montecarlo.Experiment;
+import montecarlo.MonteCarloSimulation;
+import statistics.StatCollector;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+// Compares the single-step and multi-step walks of GoBigOrGoHome: both estimates of the probability of reaching the
+// target must agree, the multi-step walk needing fewer random draws per run
+public class RandomWalkComparison {
+
+    public static void main(String[] args) {
+        double level = 0.95;
+        double p = 18.0 / 37.0;
+        long seed = 0x1350185;
+        int[] startingAmounts = {5, 20, 100};
+        long[] runs = {10_000_000, 1_000_000, 100_000};
+
+        for (int j = 0; j < startingAmounts.length; j++) {
+            int f = startingAmounts[j];
+            long numberOfRuns = runs[j];
+            // Exact probability of doubling the starting amount in the gambler's ruin problem
+            double r = (1 - p) / p;
+            double exact = (1 - Math.pow(r, f)) / (1 - Math.pow(r, 2 * f));
+            System.out.printf("*************************************%n  f = %d (exact probability %.6f)%n*************************************%n", f, exact);
+
+            String[] names = {"Single steps", "Multi-step walk"};
+            Experiment[] experiments = {new GoBigOrGoHome(p, f), new GoBigOrGoHomeMultiStep(p, f)};
+            for (int i = 0; i < experiments.length; i++) {
+                // Warm up
+                MonteCarloSimulation.simulateNRuns(experiments[i], numberOfRuns / 10, new SplittableRandom(seed + 1), new StatCollector());
+
+                StatCollector stat = new StatCollector();
+                CountingRandom rnd = new CountingRandom(seed);
+                long start = System.nanoTime();
+                MonteCarloSimulation.simulateNRuns(experiments[i], numberOfRuns, rnd, stat);
+                long end = System.nanoTime();
+
+                System.out.printf("%s%n", names[i]);
+                System.out.printf("- C.I. (95%%):       %.6f +/- %.6f%n", stat.getAverage(), stat.getConfidenceIntervalHalfWidth(level));
+                System.out.printf("- Draws per run:    %.2f%n", (double) rnd.draws / numberOfRuns);
+                System.out.printf("- Throughput:       %.2f Mruns/s%n%n", numberOfRuns * 1e3 / (end - start));
+            }
+        }
+    }
+
+    // SplittableRandom counting the uniforms drawn
+    private static class CountingRandom implements RandomGenerator {
+        final SplittableRandom rnd;
+        long draws = 0;
+
+        CountingRandom(long seed) {
+            this.rnd = new SplittableRandom(seed);
+        }
+
+        @Override
+        public long nextLong() {
+            return rnd.nextLong();
+        }
+
+        @Override
+        public double nextDouble() {
+            draws++;
+            return rnd.nextDouble();
+        }
+    }
+}
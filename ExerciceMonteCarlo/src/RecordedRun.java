@@ -0,0 +1,74 @@
+import montecarlo.Experiment;
+import montecarlo.MonteCarloSimulation;
+import statistics.ObservationReader;
+import statistics.ObservationWriter;
+import statistics.RecordingStatCollector;
+import statistics.StatCollector;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+// Simulates GUniformSample with and without recording the raw observations to a file, sequentially and in parallel,
+// then reads them back to check the statistics and to draw a histogram of the observations
+public class RecordedRun {
+
+    public static void main(String[] args) throws IOException {
+        double level = 0.95;
+        long numberOfRuns = 20_000_000;
+        Path file = Paths.get(args.length > 0 ? args[0] : "observations.bin");
+        Experiment exp = new GUniformSample(0, 6, 2);
+
+        // Warm up
+        MonteCarloSimulation.simulateNRuns(exp, numberOfRuns / 10, new SplittableRandom(1), new StatCollector());
+
+        StatCollector stat = new StatCollector();
+        long start = System.nanoTime();
+        MonteCarloSimulation.simulateNRuns(exp, numberOfRuns, new SplittableRandom(0x1350185), stat);
+        long plainTime = System.nanoTime() - start;
+
+        RecordingStatCollector recording;
+        start = System.nanoTime();
+        try (ObservationWriter writer = new ObservationWriter(file)) {
+            recording = new RecordingStatCollector(writer);
+            MonteCarloSimulation.simulateNRuns(exp, numberOfRuns, new SplittableRandom(0x1350185), recording);
+        }
+        long recordingTime = System.nanoTime() - start;
+
+        // The parallel engine records the observations of each chunk, in chunk order
+        int numberOfThreads = Runtime.getRuntime().availableProcessors();
+        Path parallelFile = Paths.get(file + ".parallel");
+        RecordingStatCollector parallel;
+        start = System.nanoTime();
+        try (ObservationWriter writer = new ObservationWriter(parallelFile)) {
+            parallel = new RecordingStatCollector(writer);
+            MonteCarloSimulation.simulateNRunsInParallel(exp, numberOfRuns, 0x1350185, 100_000, numberOfThreads, parallel);
+        }
+        long parallelTime = System.nanoTime() - start;
+
+        StatCollector replayed = new StatCollector();
+        start = System.nanoTime();
+        long read = ObservationReader.readInto(file, replayed);
+        long readTime = System.nanoTime() - start;
+        StatCollector parallelReplayed = new StatCollector();
+        long parallelRead = ObservationReader.readInto(parallelFile, parallelReplayed);
+
+        System.out.printf("*************************************%n  Recorded run (%d runs)%n*************************************%n", numberOfRuns);
+        System.out.printf("- Without recording: %.6f +/- %.6f, %.1f Mruns/s%n", stat.getAverage(), stat.getConfidenceIntervalHalfWidth(level), numberOfRuns * 1e3 / plainTime);
+        System.out.printf("- With recording:    %.6f +/- %.6f, %.1f Mruns/s%n", recording.getAverage(), recording.getConfidenceIntervalHalfWidth(level), numberOfRuns * 1e3 / recordingTime);
+        System.out.printf("- Read back:         %.6f +/- %.6f, %d observations at %.1f M/s%n", replayed.getAverage(), replayed.getConfidenceIntervalHalfWidth(level), read, read * 1e3 / readTime);
+        System.out.printf("- In parallel:       %.6f +/- %.6f, %.1f Mruns/s on %d threads%n", parallel.getAverage(), parallel.getConfidenceIntervalHalfWidth(level), numberOfRuns * 1e3 / parallelTime, numberOfThreads);
+        System.out.printf("- Read back:         %.6f +/- %.6f, %d observations%n%n", parallelReplayed.getAverage(), parallelReplayed.getConfidenceIntervalHalfWidth(level), parallelRead);
+
+        // Histogram of the observations, which the moments alone cannot give
+        int bins = 10;
+        double max = 6 * 2;
+        long[] counts = new long[bins];
+        ObservationReader.forEach(file, x -> counts[Math.min(bins - 1, (int) (x / max * bins))]++);
+        System.out.println("Histogram of the observations");
+        for (int i = 0; i < bins; i++) {
+            System.out.printf("- [%5.2f, %5.2f): %5.2f%%%n", i * max / bins, (i + 1) * max / bins, 100.0 * counts[i] / read);
+        }
+    }
+}
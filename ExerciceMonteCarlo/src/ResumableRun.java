@@ -0,0 +1,42 @@
+import montecarlo.CheckpointedSimulation;
+import montecarlo.Experiment;
+import statistics.StatCollector;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+// Long simulation saving its state every few seconds: if it is interrupted, running it again resumes it from the
+// last checkpoint instead of starting over
+public class ResumableRun {
+
+    public static void main(String[] args) throws IOException {
+        double level = 0.95;
+        double maxHalfWidth = 0.0005;
+        long initialNumberOfRuns = 1_000_000;
+        long additionalNumberOfRuns = 100_000;
+        long runsPerSegment = 1_000_000;
+        Duration checkpointInterval = Duration.ofSeconds(10);
+        Path checkpointFile = Paths.get(args.length > 0 ? args[0] : "montecarlo.ckpt");
+
+        Experiment exp = new GAcceptReject(0, 6, 2);
+        StatCollector stat = new StatCollector();
+
+        long start = System.currentTimeMillis();
+        if (Files.exists(checkpointFile)) {
+            System.out.println("Resuming from " + checkpointFile);
+            CheckpointedSimulation.resume(exp, checkpointFile, checkpointInterval, stat);
+        } else {
+            CheckpointedSimulation.simulateTillGivenCIHalfWidth(exp, level, maxHalfWidth, initialNumberOfRuns, additionalNumberOfRuns,
+                    "SplittableRandom", 0x1350185, runsPerSegment, checkpointFile, checkpointInterval, stat);
+        }
+        long end = System.currentTimeMillis();
+
+        System.out.printf("*************************************%n  Resumable run%n*************************************%n");
+        System.out.printf("- Number of runs:  %d%n", stat.getNumberOfObs());
+        System.out.printf("- C.I. (95%%):      %.6f +/- %.6f%n", stat.getAverage(), stat.getConfidenceIntervalHalfWidth(level));
+        System.out.printf("- Time taken (ms): %d%n", end - start);
+    }
+}
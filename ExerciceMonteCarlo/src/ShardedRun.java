@@ -0,0 +1,35 @@
+import montecarlo.ShardedSimulation;
+import statistics.QuantileSketchCollector;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+// Spreads a simulation of GUniformSample over several local JVM processes, each one collecting its results in a
+// quantile sketch, and merges their partial results
+public class ShardedRun {
+
+    public static void main(String[] args) throws IOException {
+        double level = 0.95;
+        long numberOfRuns = 200_000_000;
+        int numberOfShards = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        Path directory = Paths.get(args.length > 1 ? args[1] : "shards");
+        Files.createDirectories(directory);
+
+        long start = System.currentTimeMillis();
+        List<Path> shardFiles = ShardedSimulation.launch("GUniformSample", new String[]{"0", "6", "2"},
+                QuantileSketchCollector.class.getName(), new String[0], numberOfRuns, numberOfShards, "SplittableRandom",
+                0x1350185, directory);
+        QuantileSketchCollector stat = new QuantileSketchCollector();
+        ShardedSimulation.merge(shardFiles, stat);
+        long end = System.currentTimeMillis();
+
+        System.out.printf("*************************************%n  %d shards%n*************************************%n", numberOfShards);
+        System.out.printf("- Number of runs:  %d%n", stat.getNumberOfObs());
+        System.out.printf("- C.I. (95%%):      %.6f +/- %.6f%n", stat.getAverage(), stat.getConfidenceIntervalHalfWidth(level));
+        System.out.printf("- Median:          %.6f%n", stat.getQuantile(0.5));
+        System.out.printf("- Time taken (ms): %d%n", end - start);
+    }
+}
@@ -0,0 +1,59 @@
+import montecarlo.MonteCarloSimulation;
+import montecarlo.StratifiedSampling;
+import montecarlo.UnitCubeExperiment;
+import statistics.StatCollector;
+import statistics.StratifiedStatCollector;
+
+import java.util.SplittableRandom;
+
+// Compares the number of runs and the time needed to reach a given half width with plain, stratified and Latin
+// hypercube sampling
+public class StratifiedComparison {
+
+    public static void main(String[] args) {
+        double level = 0.95;
+        long seed = 0x1350185;
+
+        String[] names = {"GUniformSample", "GAcceptReject"};
+        UnitCubeExperiment[] experiments = {new GUniformSample(0, 6, 2), new GAcceptReject(0, 6, 2)};
+        int[] intervalsPerDimension = {1000, 32};
+        int pointsPerDesign = 1000;
+        double maxHalfWidth = 0.002;
+
+        for (int i = 0; i < experiments.length; i++) {
+            UnitCubeExperiment exp = experiments[i];
+            int m = intervalsPerDimension[i];
+            int numberOfStrata = StratifiedSampling.getNumberOfStrata(exp, m);
+            System.out.printf("*************************************%n  %s (target half width %.4f)%n*************************************%n", names[i], maxHalfWidth);
+
+            StatCollector stat = new StatCollector();
+            long start = System.currentTimeMillis();
+            MonteCarloSimulation.simulateTillGivenCIHalfWidth(exp, level, maxHalfWidth, 100_000, 100_000, new SplittableRandom(seed), stat);
+            long end = System.currentTimeMillis();
+            report("Plain sampling", stat.getNumberOfObs(), stat.getAverage(), stat.getConfidenceIntervalHalfWidth(level), end - start);
+
+            for (StratifiedSampling.Allocation allocation : StratifiedSampling.Allocation.values()) {
+                StratifiedStatCollector stratifiedStat = new StratifiedStatCollector(numberOfStrata);
+                start = System.currentTimeMillis();
+                StratifiedSampling.simulateTillGivenCIHalfWidth(exp, m, allocation, level, maxHalfWidth, 2 * numberOfStrata, 10_000, new SplittableRandom(seed), stratifiedStat);
+                end = System.currentTimeMillis();
+                report("Stratified sampling, " + numberOfStrata + " strata, " + allocation + " allocation", stratifiedStat.getNumberOfObs(),
+                        stratifiedStat.getAverage(), stratifiedStat.getConfidenceIntervalHalfWidth(level), end - start);
+            }
+
+            stat = new StatCollector();
+            start = System.currentTimeMillis();
+            StratifiedSampling.simulateTillGivenCIHalfWidthLatinHypercube(exp, pointsPerDesign, level, maxHalfWidth, 10, 10, new SplittableRandom(seed), stat);
+            end = System.currentTimeMillis();
+            report("Latin hypercube sampling, " + pointsPerDesign + " points per design", stat.getNumberOfObs() * pointsPerDesign,
+                    stat.getAverage(), stat.getConfidenceIntervalHalfWidth(level), end - start);
+        }
+    }
+
+    private static void report(String name, long runs, double average, double halfWidth, long time) {
+        System.out.printf("%s%n", name);
+        System.out.printf("- Number of runs:  %d%n", runs);
+        System.out.printf("- C.I. (95%%):      %.5f +/- %.6f%n", average, halfWidth);
+        System.out.printf("- Time taken (ms): %d%n%n", time);
+    }
+}
@@ -0,0 +1,40 @@
+import montecarlo.Experiment;
+import montecarlo.MonteCarloSimulation;
+import montecarlo.SimulationResult;
+import statistics.StatCollector;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+// Runs GoBigOrGoHome within a wall-clock budget on all the available processors, first for the whole budget, then
+// stopping on a target half width if it is reached before the deadline
+public class TimeBudgetedRun {
+
+    public static void main(String[] args) {
+        double level = 0.95;
+        double maxHalfWidth = 0.001;
+        Duration budget = Duration.ofSeconds(args.length > 0 ? Long.parseLong(args[0]) : 5);
+        int numberOfThreads = Runtime.getRuntime().availableProcessors();
+        Experiment exp = new GoBigOrGoHome(18.0 / 37.0, 20);
+
+        StatCollector stat = new StatCollector();
+        SimulationResult result = MonteCarloSimulation.simulateForDuration(exp, budget, level, 10_000,
+                new SplittableRandom(0x1350185), stat);
+        System.out.printf("*************************************%n  Whole budget (%d s, %d threads)%n*************************************%n",
+                budget.toSeconds(), numberOfThreads);
+        System.out.printf("- C.I. (95%%):       %.6f +/- %.6f%n", stat.getAverage(), result.getHalfWidth());
+        System.out.printf("- Number of runs:   %d%n", result.getNumberOfRuns());
+        System.out.printf("- Throughput:       %.0f runs/s%n%n", result.getRunsPerSecond());
+
+        stat = new StatCollector();
+        result = MonteCarloSimulation.simulateForDuration(exp, budget, level, maxHalfWidth, 100_000, 10_000,
+                new SplittableRandom(0x1350185), numberOfThreads, stat);
+        System.out.printf("*************************************%n  Target half width %.4f or deadline%n*************************************%n",
+                maxHalfWidth);
+        System.out.printf("- C.I. (95%%):       %.6f +/- %.6f%n", stat.getAverage(), result.getHalfWidth());
+        System.out.printf("- Stopped on:       %s%n", result.isTargetReached() ? "target half width" : "deadline");
+        System.out.printf("- Number of runs:   %d%n", result.getNumberOfRuns());
+        System.out.printf("- Elapsed time:     %d ms%n", result.getElapsedTime().toMillis());
+        System.out.printf("- Throughput:       %.0f runs/s%n", result.getRunsPerSecond());
+    }
+}
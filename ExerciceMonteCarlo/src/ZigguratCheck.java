@@ -0,0 +1,51 @@
+import montecarlo.Ziggurat;
+import statistics.InverseStdNormalCDF;
+import statistics.StatCollector;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Validates the Ziggurat samplers: empirical quantiles of a large sample against the quantiles of the
+// InverseStdNormalCDF table and of the exponential distribution, and first moments
+public class ZigguratCheck {
+
+    public static void main(String[] args) {
+        int n = 20_000_000;
+        double[] values = new double[n];
+        SplittableRandom rnd = new SplittableRandom(0x1350185);
+
+        System.out.printf("*************************************%n  Normal (%d variates)%n*************************************%n", n);
+        Ziggurat.fillGaussian(rnd, values, n);
+        report(values);
+        Arrays.sort(values);
+        double maxError = 0.0;
+        for (int k = 1; k < 1000; k++) {
+            double p = k / 1000.0;
+            maxError = Math.max(maxError, Math.abs(values[(int) (p * n)] - InverseStdNormalCDF.getQuantile(p)));
+        }
+        System.out.printf("- Max quantile error (p = 0.001..0.999): %.5f%n", maxError);
+        // The probability of the tail beyond R = 3.4426 is about 2.88e-4
+        long tail = Arrays.stream(values).filter(x -> Math.abs(x) > 3.442619855899).count();
+        System.out.printf("- Proportion beyond +/-3.4426:          %.3e (expected 5.76e-4)%n%n", (double) tail / n);
+
+        System.out.printf("*************************************%n  Exponential (%d variates)%n*************************************%n", n);
+        Ziggurat.fillExponential(rnd, values, n);
+        report(values);
+        Arrays.sort(values);
+        maxError = 0.0;
+        for (int k = 1; k < 1000; k++) {
+            double p = k / 1000.0;
+            maxError = Math.max(maxError, Math.abs(values[(int) (p * n)] + Math.log(1 - p)));
+        }
+        System.out.printf("- Max quantile error (p = 0.001..0.999): %.5f%n", maxError);
+        long tail2 = Arrays.stream(values).filter(x -> x > 7.69711747013104972).count();
+        System.out.printf("- Proportion beyond 7.6971:             %.3e (expected 4.54e-4)%n", (double) tail2 / n);
+    }
+
+    private static void report(double[] values) {
+        StatCollector stat = new StatCollector();
+        stat.addAll(values, values.length);
+        System.out.printf("- Mean:                                 %.5f +/- %.5f%n", stat.getAverage(), stat.getConfidenceIntervalHalfWidth(0.95));
+        System.out.printf("- Variance:                             %.5f%n", stat.getVariance());
+    }
+}
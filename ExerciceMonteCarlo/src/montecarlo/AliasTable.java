@@ -0,0 +1,125 @@
+package montecarlo;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Alias table of a discrete distribution on {0, ..., n-1}, built with Vose's version of Walker's alias method.
+ * <p>
+ * Once the table is built, each value is drawn in constant time from a single uniform U of [0, n): the integer part
+ * of U selects a column of the table and its fractional part chooses between the value of the column and its
+ * alias. The value drawn is not a monotone function of U: samplers preserving the order of the uniforms should use
+ * a {@link GuideTable}.
+ */
+public class AliasTable implements DiscreteSampler {
+
+	private final double[] distribution;   // probability of each value
+	private final double[] probabilities;  // probability of keeping the value of each column rather than its alias
+	private final int[] aliases;           // alias of each column
+
+	/**
+	 * Builds the alias table of the distribution with probabilities proportional to weights.
+	 *
+	 * @param weights relative weights of the values 0, ..., n-1
+	 * @throws IllegalArgumentException if there are no weights, if a weight is negative or if they sum to 0
+	 */
+	public AliasTable(double[] weights) {
+		double sum = checkWeights(weights);
+		int n = weights.length;
+
+		distribution = new double[n];
+		for (int i = 0; i < n; ++i) {
+			distribution[i] = weights[i] / sum;
+		}
+		probabilities = new double[n];
+		aliases = new int[n];
+
+		// Columns whose scaled probability is below 1 are filled up with the excess of the others
+		double[] scaled = new double[n];
+		int[] small = new int[n];
+		int[] large = new int[n];
+		int numberOfSmall = 0;
+		int numberOfLarge = 0;
+		for (int i = 0; i < n; ++i) {
+			scaled[i] = weights[i] * n / sum;
+			if (scaled[i] < 1.0) {
+				small[numberOfSmall++] = i;
+			} else {
+				large[numberOfLarge++] = i;
+			}
+		}
+		while (numberOfSmall > 0 && numberOfLarge > 0) {
+			int s = small[--numberOfSmall];
+			int l = large[--numberOfLarge];
+			probabilities[s] = scaled[s];
+			aliases[s] = l;
+			scaled[l] = (scaled[l] + scaled[s]) - 1.0;
+			if (scaled[l] < 1.0) {
+				small[numberOfSmall++] = l;
+			} else {
+				large[numberOfLarge++] = l;
+			}
+		}
+		// Remaining columns are full, up to rounding errors
+		while (numberOfLarge > 0) {
+			int l = large[--numberOfLarge];
+			probabilities[l] = 1.0;
+			aliases[l] = l;
+		}
+		while (numberOfSmall > 0) {
+			int s = small[--numberOfSmall];
+			probabilities[s] = 1.0;
+			aliases[s] = s;
+		}
+	}
+
+	/**
+	 * Checks that weights define a discrete distribution and returns their sum.
+	 *
+	 * @throws IllegalArgumentException if there are no weights, if a weight is negative or if they sum to 0
+	 */
+	static double checkWeights(double[] weights) {
+		if (weights.length == 0) {
+			throw new IllegalArgumentException("At least one weight should be given.");
+		}
+		double sum = 0.0;
+		for (double weight : weights) {
+			if (!(weight >= 0.0) || Double.isInfinite(weight)) {
+				throw new IllegalArgumentException("Weights should be non-negative and finite.");
+			}
+			sum += weight;
+		}
+		if (sum == 0.0) {
+			throw new IllegalArgumentException("At least one weight should be positive.");
+		}
+		return sum;
+	}
+
+	@Override
+	public int size() {
+		return probabilities.length;
+	}
+
+	@Override
+	public double getProbability(int value) {
+		return distribution[value];
+	}
+
+	@Override
+	public int sample(RandomGenerator rnd) {
+		double u = rnd.nextDouble() * probabilities.length;
+		int column = (int) u;
+		return u - column < probabilities[column] ? column : aliases[column];
+	}
+
+	@Override
+	public void sample(RandomGenerator rnd, int[] out, int len) {
+		double[] probabilities = this.probabilities;
+		int[] aliases = this.aliases;
+		int n = probabilities.length;
+		for (int i = 0; i < len; ++i) {
+			double u = rnd.nextDouble() * n;
+			int column = (int) u;
+			out[i] = u - column < probabilities[column] ? column : aliases[column];
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package montecarlo;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Simple random walk on the integers, moving up by one with probability p and down by one otherwise, until it
+ * reaches one of the absorbing barriers 0 and upperBarrier.
+ * <p>
+ * Instead of drawing each step, the walk jumps by the sum of k steps, drawn from an alias table of its
+ * distribution: with W the number of upward steps, which is binomial of parameters k and p, the displacement is
+ * 2W - k. The jump is only taken when no barrier can be reached before the k-th step, that is when k is no more
+ * than the distance to each barrier, so the absorption probabilities and the absorbing barrier of each walk have
+ * exactly the same distribution as with single steps. Far from the barriers, k is maxStep; near them, it
+ * decreases down to single steps.
+ * <p>
+ * Each jump uses a single uniform of the random source. Walks are immutable and can be shared between threads.
+ */
+public class BarrierRandomWalk {
+
+	private final int upperBarrier;    // absorbing upper barrier, the lower one being 0
+	private final int maxStep;         // maximal number of steps of a jump
+	private final AliasTable[] jumps;  // jumps[k] draws the number of upward steps among k
+
+	/**
+	 * Creates a new random walk and precomputes the distributions of its jumps of 1 to maxStep steps.
+	 *
+	 * @param p            probability of moving up at each step
+	 * @param upperBarrier absorbing upper barrier
+	 * @param maxStep      maximal number of steps of a jump
+	 * @throws IllegalArgumentException if p is not between 0 and 1, if upperBarrier is less than 2 or if maxStep
+	 *                                  is not positive
+	 */
+	public BarrierRandomWalk(double p, int upperBarrier, int maxStep) {
+		// Check arguments
+		if (!(p >= 0.0 && p <= 1.0)) {
+			throw new IllegalArgumentException("Probability should be between 0 and 1.");
+		}
+		if (upperBarrier < 2) {
+			throw new IllegalArgumentException("Upper barrier should be at least 2.");
+		}
+		if (maxStep <= 0) {
+			throw new IllegalArgumentException("Maximal number of steps should be positive.");
+		}
+
+		this.upperBarrier = upperBarrier;
+		// Jumps can never be longer than half the distance between the barriers
+		this.maxStep = Math.min(maxStep, upperBarrier / 2);
+		jumps = new AliasTable[this.maxStep + 1];
+		for (int k = 1; k <= this.maxStep; ++k) {
+			jumps[k] = new AliasTable(binomialProbabilities(k, p));
+		}
+	}
+
+	/**
+	 * Returns the probabilities of 0 to k successes among k independent trials of probability p.
+	 */
+	private static double[] binomialProbabilities(int k, double p) {
+		// Computed in log space, so that the powers of p and 1 - p do not underflow for long jumps
+		double[] probabilities = new double[k + 1];
+		double logP = Math.log(p);
+		double logQ = Math.log1p(-p);
+		double logBinomial = 0.0;  // log of k choose w
+		for (int w = 0; w <= k; ++w) {
+			if (w > 0) {
+				logBinomial += Math.log(k - w + 1) - Math.log(w);
+			}
+			double logProbability = logBinomial + (w == 0 ? 0.0 : w * logP) + (w == k ? 0.0 : (k - w) * logQ);
+			probabilities[w] = Math.exp(logProbability);
+		}
+		return probabilities;
+	}
+
+	/**
+	 * Returns the absorbing upper barrier of this walk.
+	 *
+	 * @return the upper barrier
+	 */
+	public int getUpperBarrier() {
+		return upperBarrier;
+	}
+
+	/**
+	 * Returns the maximal number of steps of a jump of this walk.
+	 *
+	 * @return the maximal number of steps of a jump
+	 */
+	public int getMaxStep() {
+		return maxStep;
+	}
+
+	/**
+	 * Walks from start until a barrier is reached, using rnd as a source of pseudo-random numbers.
+	 *
+	 * @param start starting position of the walk
+	 * @param rnd   random source to be used
+	 * @return the barrier reached, 0 or the upper barrier
+	 */
+	public int walk(int start, RandomGenerator rnd) {
+		int position = start;
+		while (position > 0 && position < upperBarrier) {
+			int k = Math.min(maxStep, Math.min(position, upperBarrier - position));
+			position += 2 * jumps[k].sample(rnd) - k;
+		}
+		return position <= 0 ? 0 : upperBarrier;
+	}
+}
@@ -0,0 +1,219 @@
+package montecarlo;
+
+import statistics.StatCollector;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.random.RandomGenerator;
+
+/**
+ * This class provides a version of {@link MonteCarloSimulation#simulateTillGivenCIHalfWidth} that periodically
+ * saves its state to a checkpoint file, so that a simulation interrupted by the end of the JVM can be resumed
+ * where it stopped.
+ * <p>
+ * The runs are simulated in consecutive segments of at most runsPerSegment runs, each one with its own random
+ * source split from a master generator created from a generator name and a seed. The position in the stream of
+ * random numbers is thus given by the number of completed segments: on resumption, the master generator is
+ * recreated and split that many times. A checkpoint is written before the first segment, after a segment if the
+ * last one is older than the checkpoint interval, and at the end of the simulation.
+ * <p>
+ * The checkpoint contains the parameters of the simulation, the state of the stopping rule and the state of the
+ * collector. It is first written to a temporary file that then replaces the checkpoint file in a single atomic
+ * move, so that a checkpoint file is always complete. For a given generator, seed and segment size, a resumed
+ * simulation gives exactly the same results as an uninterrupted one.
+ */
+public final class CheckpointedSimulation {
+	private static final int MAGIC = 0x4D434B50;  // identifies checkpoint files
+	private static final int VERSION = 1;         // version of the format of checkpoint files
+
+	/**
+	 * Private constructor. Makes it impossible to instantiate.
+	 */
+	private CheckpointedSimulation() {
+	}
+
+	/**
+	 * Parameters and progress of a checkpointed simulation.
+	 */
+	private static final class State {
+		double level;                 // confidence level of the confidence interval
+		double maxHalfWidth;          // maximal half width of the confidence interval
+		long initialNumberOfRuns;     // initial number of runs to be performed
+		long additionalNumberOfRuns;  // additional number of runs to be performed if C.I. is too wide
+		String generatorName;         // name of the algorithm of the master generator
+		long seed;                    // seed of the master generator
+		long runsPerSegment;          // maximal number of runs simulated with the same random source
+		long completedSegments;       // number of segments simulated, that is of streams split from the master
+		long completedRuns;           // number of runs simulated
+		long plannedRuns;             // number of runs to be simulated before the C.I. is checked again
+		boolean estimated;            // whether the number of runs needed has been estimated from the initial runs
+	}
+
+	/**
+	 * Same as {@link MonteCarloSimulation#simulateTillGivenCIHalfWidth(Experiment, double, double, long, long,
+	 * RandomGenerator, StatCollector)}, but saves the state of the simulation to checkpointFile after a segment of
+	 * runs if the last checkpoint is older than checkpointInterval, and at the end of the simulation.
+	 * <p>
+	 * The generator is created and a first checkpoint is written before any run is simulated, so that an invalid
+	 * generator, a collector that cannot be saved or a file that cannot be written are reported at once rather than
+	 * after a segment of runs.
+	 *
+	 * @param exp                    experiment to be run each time
+	 * @param level                  confidence level of the confidence interval
+	 * @param maxHalfWidth           maximal half width of the confidence interval
+	 * @param initialNumberOfRuns    initial number of runs to be performed
+	 * @param additionalNumberOfRuns additional number of runs to be performed if C.I. is too wide
+	 * @param generatorName          name of the algorithm of the master generator, which must be splittable
+	 * @param seed                   seed of the master generator
+	 * @param runsPerSegment         maximal number of runs simulated with the same random source
+	 * @param checkpointFile         file to which the state of the simulation is saved
+	 * @param checkpointInterval     minimal time between two checkpoints
+	 * @param stat                   collector to be used to collect the results of each experiment
+	 * @throws IllegalArgumentException if runsPerSegment is not positive or if the generator is not splittable
+	 * @throws IOException              if a checkpoint cannot be written
+	 */
+	public static void simulateTillGivenCIHalfWidth(Experiment exp,
+													double level,
+													double maxHalfWidth,
+													long initialNumberOfRuns,
+													long additionalNumberOfRuns,
+													String generatorName,
+													long seed,
+													long runsPerSegment,
+													Path checkpointFile,
+													Duration checkpointInterval,
+													StatCollector stat) throws IOException {
+		// Check arguments
+		if (runsPerSegment <= 0) {
+			throw new IllegalArgumentException("Number of runs per segment should be positive.");
+		}
+
+		State state = new State();
+		state.level = level;
+		state.maxHalfWidth = maxHalfWidth;
+		state.initialNumberOfRuns = initialNumberOfRuns;
+		state.additionalNumberOfRuns = additionalNumberOfRuns;
+		state.generatorName = generatorName;
+		state.seed = seed;
+		state.runsPerSegment = runsPerSegment;
+		state.plannedRuns = initialNumberOfRuns;
+		RandomGenerators.createSplittable(generatorName, seed);
+		writeCheckpoint(state, stat, checkpointFile);
+		simulate(exp, state, checkpointFile, checkpointInterval, stat);
+	}
+
+	/**
+	 * Resumes the simulation whose state was saved to checkpointFile, with the same parameters, and keeps saving
+	 * its state to the same file. The state of stat is replaced by the one of the checkpoint, so stat must be of
+	 * the same type as the collector of the interrupted simulation.
+	 * <p>
+	 * Resuming a simulation that has completed only checks its C.I. again.
+	 *
+	 * @param exp                experiment to be run each time, the same as in the interrupted simulation
+	 * @param checkpointFile     file to which the state of the simulation was saved
+	 * @param checkpointInterval minimal time between two checkpoints
+	 * @param stat               collector to be used to collect the results of each experiment
+	 * @throws IOException if the checkpoint cannot be read or a new checkpoint cannot be written
+	 */
+	public static void resume(Experiment exp,
+							  Path checkpointFile,
+							  Duration checkpointInterval,
+							  StatCollector stat) throws IOException {
+		State state = new State();
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(checkpointFile)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new IOException(checkpointFile + " is not a checkpoint file.");
+			}
+			state.level = in.readDouble();
+			state.maxHalfWidth = in.readDouble();
+			state.initialNumberOfRuns = in.readLong();
+			state.additionalNumberOfRuns = in.readLong();
+			state.generatorName = in.readUTF();
+			state.seed = in.readLong();
+			state.runsPerSegment = in.readLong();
+			state.completedSegments = in.readLong();
+			state.completedRuns = in.readLong();
+			state.plannedRuns = in.readLong();
+			state.estimated = in.readBoolean();
+			stat.readFrom(in);
+		}
+		simulate(exp, state, checkpointFile, checkpointInterval, stat);
+	}
+
+	/**
+	 * Runs the stopping rule of {@link MonteCarloSimulation#simulateTillGivenCIHalfWidth} from the given state,
+	 * one segment at a time.
+	 */
+	private static void simulate(Experiment exp,
+								 State state,
+								 Path checkpointFile,
+								 Duration checkpointInterval,
+								 StatCollector stat) throws IOException {
+		// Move to the position of the interrupted simulation in the stream of random numbers
+		RandomGenerator.SplittableGenerator master = RandomGenerators.createSplittable(state.generatorName, state.seed);
+		for (long segment = 0; segment < state.completedSegments; ++segment) {
+			master.split();
+		}
+
+		long interval = checkpointInterval.toNanos();
+		long lastCheckpoint = System.nanoTime();
+		while (true) {
+			if (state.completedRuns >= state.plannedRuns) {
+				double currentHalfWidth = stat.getConfidenceIntervalHalfWidth(state.level);
+				if (currentHalfWidth <= state.maxHalfWidth) {
+					break;
+				}
+				if (!state.estimated) {
+					// n_needed = n_current * (currentHalfWidth / maxHalfWidth)^2, rounded up to the nearest
+					// multiple of additionalNumberOfRuns
+					double totalRunsNeeded = state.initialNumberOfRuns * Math.pow(currentHalfWidth / state.maxHalfWidth, 2);
+					long additionalRunsNeeded = (long) totalRunsNeeded - state.initialNumberOfRuns;
+					long additional = state.additionalNumberOfRuns;
+					state.plannedRuns += Math.max(0, ((additionalRunsNeeded + additional - 1) / additional) * additional);
+					state.estimated = true;
+				} else {
+					state.plannedRuns += state.additionalNumberOfRuns;
+				}
+				continue;
+			}
+
+			long runs = Math.min(state.runsPerSegment, state.plannedRuns - state.completedRuns);
+			MonteCarloSimulation.simulateNRuns(exp, runs, master.split(), stat);
+			state.completedSegments++;
+			state.completedRuns += runs;
+
+			long now = System.nanoTime();
+			if (now - lastCheckpoint >= interval) {
+				writeCheckpoint(state, stat, checkpointFile);
+				lastCheckpoint = now;
+			}
+		}
+		writeCheckpoint(state, stat, checkpointFile);
+	}
+
+	/**
+	 * Atomically replaces checkpointFile by a file containing the state of the simulation and of its collector.
+	 */
+	private static void writeCheckpoint(State state, StatCollector stat, Path checkpointFile) throws IOException {
+		StateFiles.writeAtomically(checkpointFile, out -> {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeDouble(state.level);
+			out.writeDouble(state.maxHalfWidth);
+			out.writeLong(state.initialNumberOfRuns);
+			out.writeLong(state.additionalNumberOfRuns);
+			out.writeUTF(state.generatorName);
+			out.writeLong(state.seed);
+			out.writeLong(state.runsPerSegment);
+			out.writeLong(state.completedSegments);
+			out.writeLong(state.completedRuns);
+			out.writeLong(state.plannedRuns);
+			out.writeBoolean(state.estimated);
+			stat.writeTo(out);
+		});
+	}
+}
@@ -0,0 +1,29 @@
+package montecarlo;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Classes to be used for Monte Carlo simulations with control variates should implement this interface.
+ * <p>
+ * Besides the performance measure, each run of the experiment produces the values of one or more controls,
+ * that is random variables correlated with the performance measure and whose means are known.
+ */
+public interface ControlledExperiment {
+
+	/**
+	 * Returns the known means of the controls produced by each run of the experiment.
+	 *
+	 * @return the means of the controls
+	 */
+	double[] getControlMeans();
+
+	/**
+	 * Simulates the experiment once, using rnd as a source of pseudo-random numbers, and stores the values
+	 * of the controls in controls.
+	 *
+	 * @param rnd      random source to be used to simulate the experiment
+	 * @param controls array receiving the values of the controls, in the same order as their means
+	 * @return realization of the performance measure for the experiment (of type double)
+	 */
+	double execute(RandomGenerator rnd, double[] controls);
+}
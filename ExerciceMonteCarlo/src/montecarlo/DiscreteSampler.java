@@ -0,0 +1,49 @@
+package montecarlo;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Samplers of discrete distributions on {0, ..., n-1}, to be used by experiments drawing categorical outcomes at
+ * high rates instead of chains of comparisons on nextDouble().
+ * <p>
+ * Implementations precompute their tables once, are immutable and can be shared between threads and runs:
+ * drawing values allocates nothing.
+ */
+public interface DiscreteSampler {
+
+	/**
+	 * Returns the number of values of the distribution.
+	 *
+	 * @return the number of values
+	 */
+	int size();
+
+	/**
+	 * Returns the probability of the given value.
+	 *
+	 * @param value value between 0 and n-1
+	 * @return the probability of the value
+	 */
+	double getProbability(int value);
+
+	/**
+	 * Draws a value of the distribution, using a single uniform of rnd.
+	 *
+	 * @param rnd random source to be used
+	 * @return a value between 0 and n-1
+	 */
+	int sample(RandomGenerator rnd);
+
+	/**
+	 * Draws len values of the distribution into the first len elements of out.
+	 *
+	 * @param rnd random source to be used
+	 * @param out array receiving the values
+	 * @param len number of values to be drawn
+	 */
+	default void sample(RandomGenerator rnd, int[] out, int len) {
+		for (int i = 0; i < len; ++i) {
+			out[i] = sample(rnd);
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package montecarlo;
 
 import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * Classes to be used for Monte Carlo simulations should implement this interface.
@@ -14,4 +15,37 @@ public interface Experiment {
 	 * @return realization of the performance measure for the experiment (of type double)
 	 */
 	double execute(Random rnd);
+
+	/**
+	 * Simulates the experiment once, using rnd as a source of pseudo-random numbers.
+	 * <p>
+	 * This is the method called by {@link MonteCarloSimulation}. The default implementation hands rnd over to
+	 * {@link #execute(Random)}, wrapping it in a {@link Random} if needed. The wrapper is reused from one run to the
+	 * next, but each value still goes through it: experiments should override this method to draw directly from
+	 * rnd, so that generators other than {@link Random} (see {@link RandomGenerators}) are used without any
+	 * overhead.
+	 *
+	 * @param rnd random source to be used to simulate the experiment
+	 * @return realization of the performance measure for the experiment (of type double)
+	 */
+	default double execute(RandomGenerator rnd) {
+		return execute(RandomGeneratorAdapter.of(rnd));
+	}
+
+	/**
+	 * Simulates the experiment len times, using rnd as a source of pseudo-random numbers, and stores the
+	 * realizations of the performance measure in the first len elements of out.
+	 * <p>
+	 * The default implementation calls {@link #execute(RandomGenerator)} len times. Cheap experiments should
+	 * override it with a plain loop over the batch, avoiding a virtual call per run.
+	 *
+	 * @param rnd random source to be used to simulate the experiment
+	 * @param out array receiving the realizations of the performance measure
+	 * @param len number of runs to be performed
+	 */
+	default void executeBatch(RandomGenerator rnd, double[] out, int len) {
+		for (int i = 0; i < len; ++i) {
+			out[i] = execute(rnd);
+		}
+	}
 }
@@ -0,0 +1,106 @@
+package montecarlo;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+
+/**
+ * Utility class to create experiments, and the collectors of their results, by reflection from the name of their
+ * class and the arguments of their constructor given as strings, for instance on the command line of another
+ * process. Experiments of the default package can thus also be created from named packages.
+ */
+public final class Experiments {
+
+	/**
+	 * Private constructor. Makes it impossible to instantiate.
+	 */
+	private Experiments() {
+	}
+
+	/**
+	 * Creates an experiment of class experimentClass with the public constructor having as many parameters as args
+	 * and accepting them once converted to its parameter types. Parameters may be of type int, long, double,
+	 * boolean or String.
+	 *
+	 * @param experimentClass name of the class of the experiment
+	 * @param args            arguments of the constructor
+	 * @return the new experiment
+	 * @throws IllegalArgumentException if the class is not an experiment or has no matching constructor
+	 */
+	public static Experiment create(String experimentClass, String... args) {
+		return create(Experiment.class, "experiment", experimentClass, args);
+	}
+
+	/**
+	 * Creates an object of class className, which must be a subtype of type, with the public constructor having as
+	 * many parameters as args and accepting them once converted to its parameter types, as {@link #create(String,
+	 * String...)} does for experiments. Used to create the collectors of the shards.
+	 *
+	 * @param type      type of the object
+	 * @param kind      name of the type in error messages
+	 * @param className name of the class of the object
+	 * @param args      arguments of the constructor
+	 * @param <T>       type of the object
+	 * @return the new object
+	 * @throws IllegalArgumentException if the class is not a subtype of type or has no matching constructor
+	 */
+	static <T> T create(Class<T> type, String kind, String className, String... args) {
+		Class<?> actualType;
+		try {
+			actualType = Class.forName(className);
+		} catch (ClassNotFoundException e) {
+			throw new IllegalArgumentException("Unknown " + kind + " class " + className + ".", e);
+		}
+		if (!type.isAssignableFrom(actualType)) {
+			throw new IllegalArgumentException(className + " is not of type " + type.getSimpleName() + ".");
+		}
+
+		for (Constructor<?> constructor : actualType.getConstructors()) {
+			Class<?>[] parameterTypes = constructor.getParameterTypes();
+			if (parameterTypes.length != args.length) {
+				continue;
+			}
+			Object[] values = new Object[args.length];
+			try {
+				for (int i = 0; i < args.length; ++i) {
+					values[i] = convert(args[i], parameterTypes[i]);
+				}
+			} catch (IllegalArgumentException e) {
+				// Arguments do not match this constructor, try the next one
+				continue;
+			}
+			try {
+				return type.cast(constructor.newInstance(values));
+			} catch (InvocationTargetException e) {
+				throw new IllegalArgumentException("Cannot create " + kind + " " + className + ".", e.getCause());
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalArgumentException("Cannot create " + kind + " " + className + ".", e);
+			}
+		}
+		throw new IllegalArgumentException("No constructor of " + className + " accepts " + Arrays.toString(args) + ".");
+	}
+
+	/**
+	 * Converts an argument to the given parameter type.
+	 *
+	 * @throws IllegalArgumentException if the argument cannot be converted
+	 */
+	private static Object convert(String arg, Class<?> type) {
+		if (type == int.class || type == Integer.class) {
+			return Integer.parseInt(arg);
+		}
+		if (type == long.class || type == Long.class) {
+			return Long.parseLong(arg);
+		}
+		if (type == double.class || type == Double.class) {
+			return Double.parseDouble(arg);
+		}
+		if (type == boolean.class || type == Boolean.class) {
+			return Boolean.parseBoolean(arg);
+		}
+		if (type == String.class) {
+			return arg;
+		}
+		throw new IllegalArgumentException("Unsupported parameter type " + type.getName() + ".");
+	}
+}
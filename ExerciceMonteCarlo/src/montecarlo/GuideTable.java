@@ -0,0 +1,101 @@
+package montecarlo;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Inverse transform sampler of a discrete distribution on {0, ..., n-1}, accelerated by a guide table (Chen and
+ * Asau).
+ * <p>
+ * The value drawn from a uniform U is the smallest i such that U &lt; F(i), F being the cumulative distribution
+ * function. The guide table gives, for each of m equal intervals of [0, 1), the smallest value that U can map to,
+ * so that the sequential search from there takes less than 1 + n / m comparisons on average.
+ * <p>
+ * Unlike {@link AliasTable}, the value drawn is a non-decreasing function of U: the sampler preserves the
+ * correlations induced by antithetic variates, common random numbers or quasi-Monte Carlo points.
+ */
+public class GuideTable implements DiscreteSampler {
+
+	private final double[] cumulative;  // cumulative probabilities F(0), ..., F(n-1), the last one being 1
+	private final int[] guide;          // guide[j] is the smallest i such that j / m < F(i)
+
+	/**
+	 * Builds the sampler of the distribution with probabilities proportional to weights, with a guide table of n
+	 * entries.
+	 *
+	 * @param weights relative weights of the values 0, ..., n-1
+	 * @throws IllegalArgumentException if there are no weights, if a weight is negative or if they sum to 0
+	 */
+	public GuideTable(double[] weights) {
+		this(weights, weights.length);
+	}
+
+	/**
+	 * Builds the sampler of the distribution with probabilities proportional to weights, with a guide table of
+	 * the given size.
+	 *
+	 * @param weights   relative weights of the values 0, ..., n-1
+	 * @param guideSize number of entries of the guide table
+	 * @throws IllegalArgumentException if there are no weights, if a weight is negative, if they sum to 0 or if
+	 *                                  guideSize is not positive
+	 */
+	public GuideTable(double[] weights, int guideSize) {
+		double sum = AliasTable.checkWeights(weights);
+		if (guideSize <= 0) {
+			throw new IllegalArgumentException("Size of the guide table should be positive.");
+		}
+
+		int n = weights.length;
+		cumulative = new double[n];
+		double partialSum = 0.0;
+		for (int i = 0; i < n; ++i) {
+			partialSum += weights[i];
+			cumulative[i] = partialSum / sum;
+		}
+		// Values after the last one of positive weight can never be drawn, even with rounding errors
+		int last = n - 1;
+		while (weights[last] == 0.0) {
+			--last;
+		}
+		for (int i = last; i < n; ++i) {
+			cumulative[i] = 1.0;
+		}
+
+		guide = new int[guideSize];
+		int i = 0;
+		for (int j = 0; j < guideSize; ++j) {
+			while (cumulative[i] <= (double) j / guideSize) {
+				++i;
+			}
+			guide[j] = i;
+		}
+	}
+
+	@Override
+	public int size() {
+		return cumulative.length;
+	}
+
+	@Override
+	public double getProbability(int value) {
+		return value == 0 ? cumulative[0] : cumulative[value] - cumulative[value - 1];
+	}
+
+	@Override
+	public int sample(RandomGenerator rnd) {
+		return sample(rnd.nextDouble());
+	}
+
+	/**
+	 * Returns the value of the distribution given by the inverse transform of u.
+	 *
+	 * @param u uniform of [0, 1)
+	 * @return the smallest value i such that u &lt; F(i)
+	 */
+	public int sample(double u) {
+		int i = guide[(int) (u * guide.length)];
+		while (cumulative[i] <= u) {
+			++i;
+		}
+		return i;
+	}
+}
@@ -0,0 +1,76 @@
+package montecarlo;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Halton sequence, whose coordinate i is the radical inverse of the index of the point in the i-th prime base.
+ * <p>
+ * It is randomized by a random shift modulo 1 of all the points (Cranley-Patterson rotation).
+ */
+public class HaltonSequence implements QuasiRandomSequence {
+
+	private final int[] bases;      // prime base of each coordinate
+	private final double[] shift;   // random shift of each coordinate, zero if not randomized
+
+	/**
+	 * Creates a new (not randomized) Halton sequence of the given dimension.
+	 *
+	 * @param dimension dimension of the points of the sequence
+	 * @throws IllegalArgumentException if dimension is not positive
+	 */
+	public HaltonSequence(int dimension) {
+		if (dimension <= 0) {
+			throw new IllegalArgumentException("Dimension should be positive.");
+		}
+
+		bases = new int[dimension];
+		int candidate = 2;
+		for (int i = 0; i < dimension; ++candidate) {
+			boolean prime = true;
+			for (int j = 0; j < i && bases[j] * bases[j] <= candidate; ++j) {
+				if (candidate % bases[j] == 0) {
+					prime = false;
+					break;
+				}
+			}
+			if (prime) {
+				bases[i++] = candidate;
+			}
+		}
+		shift = new double[dimension];
+	}
+
+	private HaltonSequence(int[] bases, double[] shift) {
+		this.bases = bases;
+		this.shift = shift;
+	}
+
+	@Override
+	public int getDimension() {
+		return bases.length;
+	}
+
+	@Override
+	public void getPoint(long index, double[] u) {
+		for (int i = 0; i < bases.length; ++i) {
+			int base = bases[i];
+			double inverse = 0.0;
+			double factor = 1.0 / base;
+			for (long k = index; k > 0; k /= base, factor /= base) {
+				inverse += (k % base) * factor;
+			}
+
+			inverse += shift[i];
+			u[i] = inverse >= 1.0 ? inverse - 1.0 : inverse;
+		}
+	}
+
+	@Override
+	public HaltonSequence randomize(RandomGenerator rnd) {
+		double[] randomShift = new double[bases.length];
+		for (int i = 0; i < randomShift.length; ++i) {
+			randomShift[i] = rnd.nextDouble();
+		}
+		return new HaltonSequence(bases, randomShift);
+	}
+}
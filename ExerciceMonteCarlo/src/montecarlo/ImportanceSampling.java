@@ -0,0 +1,78 @@
+package montecarlo;
+
+import statistics.ImportanceSamplingCollector;
+import statistics.StatCollector;
+
+import java.util.function.DoubleUnaryOperator;
+import java.util.random.RandomGenerator;
+
+/**
+ * This class provides methods for importance sampling simulations, estimating the mean of f(X) for X following a
+ * nominal distribution by drawing X from a proposal distribution and weighting each observation by the likelihood
+ * ratio of the nominal to the proposal density.
+ * <p>
+ * To estimate the integral of h over [a, b], use a {@link UniformProposal} over [a, b] as nominal distribution and
+ * (b - a) h as f.
+ */
+public class ImportanceSampling {
+
+	/**
+	 * Private constructor. Makes it impossible to instantiate.
+	 */
+	private ImportanceSampling() {
+	}
+
+	/**
+	 * Draws n points from the proposal distribution, using rnd as a source of pseudo-random numbers, and collects
+	 * f at these points and their likelihood ratios in stat.
+	 * <p>
+	 * The proposal density should be positive wherever both f and the nominal density are non-zero.
+	 *
+	 * @param f        function whose mean under the nominal distribution is estimated
+	 * @param nominal  nominal distribution
+	 * @param proposal proposal distribution from which the points are drawn
+	 * @param n        number of runs to be performed
+	 * @param rnd      random source to be used to draw the points
+	 * @param stat     collector to be used to collect the observations and their likelihood ratios
+	 */
+	public static void simulateNRuns(DoubleUnaryOperator f,
+									 ProposalDistribution nominal,
+									 ProposalDistribution proposal,
+									 long n,
+									 RandomGenerator rnd,
+									 ImportanceSamplingCollector stat) {
+		for (long run = 0; run < n; ++run) {
+			double x = proposal.sample(rnd);
+			double weight = nominal.density(x) / proposal.density(x);
+			stat.add(f.applyAsDouble(x), weight);
+		}
+	}
+
+	/**
+	 * Same as {@link MonteCarloSimulation#simulateTillGivenCIHalfWidth(Experiment, double, double, long, long,
+	 * RandomGenerator, StatCollector)}, with importance sampling.
+	 *
+	 * @param f                      function whose mean under the nominal distribution is estimated
+	 * @param nominal                nominal distribution
+	 * @param proposal               proposal distribution from which the points are drawn
+	 * @param level                  confidence level of the confidence interval
+	 * @param maxHalfWidth           maximal half width of the confidence interval
+	 * @param initialNumberOfRuns    initial number of runs to be performed
+	 * @param additionalNumberOfRuns additional number of runs to be performed if C.I. is too wide
+	 * @param rnd                    random source to be used to draw the points
+	 * @param stat                   collector to be used to collect the observations and their likelihood ratios
+	 */
+	public static void simulateTillGivenCIHalfWidth(DoubleUnaryOperator f,
+													ProposalDistribution nominal,
+													ProposalDistribution proposal,
+													double level,
+													double maxHalfWidth,
+													long initialNumberOfRuns,
+													long additionalNumberOfRuns,
+													RandomGenerator rnd,
+													ImportanceSamplingCollector stat) {
+		MonteCarloSimulation.simulateTillGivenCIHalfWidth(n -> simulateNRuns(f, nominal, proposal, n, rnd, stat),
+				() -> stat.getConfidenceIntervalHalfWidth(level) / maxHalfWidth, initialNumberOfRuns,
+				additionalNumberOfRuns);
+	}
+}
@@ -0,0 +1,56 @@
+package montecarlo;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Distribution over an interval [a, b] whose density is proportional to the linear function going from fa at a
+ * to fb at b, sampled by inversion of its cumulative distribution function.
+ */
+public class LinearProposal implements ProposalDistribution {
+
+	private final double a;       // lower bound of the interval
+	private final double b;       // upper bound of the interval
+	private final double fa;      // unnormalized density at a
+	private final double slope;   // slope of the unnormalized density
+	private final double area;    // area under the unnormalized density
+
+	/**
+	 * Creates a new distribution over [a, b] with a density proportional to the linear function going from fa
+	 * at a to fb at b.
+	 *
+	 * @param a  lower bound of the interval
+	 * @param b  upper bound of the interval
+	 * @param fa unnormalized density at a
+	 * @param fb unnormalized density at b
+	 * @throws IllegalArgumentException if a is not less than b, or if fa or fb is negative, or both are zero
+	 */
+	public LinearProposal(double a, double b, double fa, double fb) {
+		if (!(a < b)) {
+			throw new IllegalArgumentException("Lower bound should be less than upper bound.");
+		}
+		if (fa < 0.0 || fb < 0.0 || fa + fb == 0.0) {
+			throw new IllegalArgumentException("Density should be non-negative and not identically zero.");
+		}
+		this.a = a;
+		this.b = b;
+		this.fa = fa;
+		slope = (fb - fa) / (b - a);
+		area = (fa + fb) * (b - a) / 2.0;
+	}
+
+	@Override
+	public double sample(RandomGenerator rnd) {
+		// Root of slope / 2 * t^2 + fa * t = u * area, in a form that is also stable when slope is zero
+		double target = rnd.nextDouble() * area;
+		double denominator = fa + Math.sqrt(fa * fa + 2.0 * slope * target);
+		if (denominator == 0.0) {
+			return a;
+		}
+		return Math.min(b, a + 2.0 * target / denominator);
+	}
+
+	@Override
+	public double density(double x) {
+		return x >= a && x <= b ? (fa + slope * (x - a)) / area : 0.0;
+	}
+}
@@ -1,13 +1,35 @@
 package montecarlo;
 
+import statistics.ControlVariateCollector;
+import statistics.MultivariateStatCollector;
 import statistics.StatCollector;
 
-import java.util.Random;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
 
 /**
  * This class provides methods for simple Monte Carlo simulations.
  */
 public class MonteCarloSimulation {
+	// Number of runs simulated by a single call to Experiment.executeBatch
+	private static final int BATCH_SIZE = 4096;
+
 	/**
 	 * Private constructor. Makes it impossible to instantiate.
 	 */
@@ -17,6 +39,9 @@ public class MonteCarloSimulation {
 	/**
 	 * Simulates experiment exp n times, using rnd as a source of pseudo-random numbers and collect
 	 * the results in stat.
+	 * <p>
+	 * The runs are simulated in batches through {@link Experiment#executeBatch} and the results of each batch
+	 * are added to stat at once.
 	 *
 	 * @param exp  experiment to be run each time
 	 * @param n    number of runs to be performed
@@ -25,10 +50,243 @@ public class MonteCarloSimulation {
 	 */
 	public static void simulateNRuns(Experiment exp,
 									 long n,
-									 Random rnd,
+									 RandomGenerator rnd,
 									 StatCollector stat) {
+		simulateBatches(exp, n, rnd, stat, null);
+	}
+
+	/**
+	 * Same as {@link #simulateNRuns(Experiment, long, RandomGenerator, StatCollector)}, but also reports the
+	 * progress of the simulation in progress after each batch of runs.
+	 *
+	 * @param exp      experiment to be run each time
+	 * @param n        number of runs to be performed
+	 * @param rnd      random source to be used to simulate the experiment
+	 * @param stat     collector to be used to collect the results of each experiment
+	 * @param progress progress to be updated during the simulation
+	 */
+	public static void simulateNRuns(Experiment exp,
+									 long n,
+									 RandomGenerator rnd,
+									 StatCollector stat,
+									 SimulationProgress progress) {
+		progress.start(stat);
+		simulateBatches(exp, n, rnd, stat, progress);
+		progress.update(stat, true);
+	}
+
+	/**
+	 * Simulates experiment exp n times in batches, collects the results in stat and updates progress, if any,
+	 * after each batch.
+	 */
+	private static void simulateBatches(Experiment exp,
+										long n,
+										RandomGenerator rnd,
+										StatCollector stat,
+										SimulationProgress progress) {
+		double[] results = new double[(int) Math.max(0, Math.min(BATCH_SIZE, n))];
+		for (long run = 0; run < n; run += results.length) {
+			int len = (int) Math.min(results.length, n - run);
+			exp.executeBatch(rnd, results, len);
+			stat.addAll(results, len);
+			if (progress != null) {
+				progress.update(stat, false);
+			}
+		}
+	}
+
+	/**
+	 * Simulates experiment exp n times, using rnd as a source of pseudo-random numbers, and collects the
+	 * results and their controls in stat.
+	 *
+	 * @param exp  experiment to be run each time
+	 * @param n    number of runs to be performed
+	 * @param rnd  random source to be used to simulate the experiment
+	 * @param stat collector to be used to collect the results of each experiment and their controls
+	 */
+	public static void simulateNRuns(ControlledExperiment exp,
+									 long n,
+									 RandomGenerator rnd,
+									 ControlVariateCollector stat) {
+		double[] controls = new double[stat.getNumberOfControls()];
 		for (long run = 0; run < n; ++run) {
-			stat.add(exp.execute(rnd));
+			stat.add(exp.execute(rnd, controls), controls);
+		}
+	}
+
+	/**
+	 * Simulates experiment exp n times, using rnd as a source of pseudo-random numbers, and collects the
+	 * outputs of each run in stat.
+	 *
+	 * @param exp  experiment to be run each time
+	 * @param n    number of runs to be performed
+	 * @param rnd  random source to be used to simulate the experiment
+	 * @param stat collector to be used to collect the outputs of each experiment
+	 * @throws IllegalArgumentException if stat does not have the dimension of the outputs of exp
+	 */
+	public static void simulateNRuns(MultiOutputExperiment exp,
+									 long n,
+									 RandomGenerator rnd,
+									 MultivariateStatCollector stat) {
+		if (stat.getDimension() != exp.getNumberOfOutputs()) {
+			throw new IllegalArgumentException("Collector should have the dimension of the outputs.");
+		}
+		double[] outputs = new double[exp.getNumberOfOutputs()];
+		for (long run = 0; run < n; ++run) {
+			exp.execute(rnd, outputs);
+			stat.add(outputs);
+		}
+	}
+
+	/**
+	 * Simulates n antithetic pairs of runs of experiment exp, using rnd as a source of pseudo-random numbers,
+	 * and collects the average of each pair in stat.
+	 * <p>
+	 * The first run of each pair uses uniforms U drawn from rnd, the second one uses 1 - 2^-53 - U in the same
+	 * order, the reflection of U within [0, 1). For experiments that are monotone in their uniforms, the two runs
+	 * are negatively correlated and the averages have a lower variance than single runs. Since pairs are
+	 * independent, the C.I. computed by stat remains valid. Only the values returned by nextDouble() are mirrored:
+	 * if the second run draws more uniforms than the first one, or uses other methods of rnd, it gets fresh
+	 * values.
+	 *
+	 * @param exp  experiment to be run each time
+	 * @param n    number of pairs of runs to be performed
+	 * @param rnd  random source to be used to simulate the experiment
+	 * @param stat collector to be used to collect the average of each pair of runs
+	 */
+	public static void simulateNAntitheticPairs(Experiment exp,
+												long n,
+												RandomGenerator rnd,
+												StatCollector stat) {
+		ReplayableRandomGenerator pairRnd = new ReplayableRandomGenerator(rnd);
+		double[] results = new double[(int) Math.max(0, Math.min(BATCH_SIZE, n))];
+		for (long pair = 0; pair < n; pair += results.length) {
+			int len = (int) Math.min(results.length, n - pair);
+			for (int i = 0; i < len; ++i) {
+				pairRnd.record();
+				double x = exp.execute(pairRnd);
+				pairRnd.replay(true);
+				results[i] = (x + exp.execute(pairRnd)) / 2.0;
+			}
+			stat.addAll(results, len);
+		}
+	}
+
+	/**
+	 * Simulates experiment exp n times on numberOfThreads worker threads and collects the results in stat.
+	 * <p>
+	 * Same as {@link #simulateNRunsInParallel(Experiment, long, RandomGenerator.SplittableGenerator, long, int,
+	 * StatCollector)}, with a SplittableRandom initialized with seed as master generator.
+	 * <p>
+	 * The experiment is shared by all the worker threads and must therefore be thread-safe.
+	 *
+	 * @param exp             experiment to be run each time
+	 * @param n               number of runs to be performed
+	 * @param seed            master seed from which the random source of each chunk is derived
+	 * @param runsPerChunk    number of runs simulated with the same random source
+	 * @param numberOfThreads number of worker threads
+	 * @param stat            collector to be used to collect the results of each experiment
+	 * @throws IllegalArgumentException if runsPerChunk or numberOfThreads is not positive
+	 */
+	public static void simulateNRunsInParallel(Experiment exp,
+											   long n,
+											   long seed,
+											   long runsPerChunk,
+											   int numberOfThreads,
+											   StatCollector stat) {
+		simulateNRunsInParallel(exp, n, new SplittableRandom(seed), runsPerChunk, numberOfThreads, stat);
+	}
+
+	/**
+	 * Simulates experiment exp n times on numberOfThreads worker threads and collects the results in stat.
+	 * <p>
+	 * The runs are split into consecutive chunks of runsPerChunk runs (the last one may be shorter). Each
+	 * chunk is simulated with its own random source, split from master, and collected in its own collector,
+	 * created by {@link StatCollector#newCollector() stat.newCollector()}. The chunk collectors are then merged
+	 * into stat in chunk order, so that for a given master generator state and chunk size the results do not
+	 * depend on the number of threads. Chunks are started at most two per thread ahead of the next chunk to be
+	 * merged. If a chunk fails, the chunks not yet started are cancelled and the method rethrows its exception once
+	 * the chunks being simulated have completed.
+	 * <p>
+	 * The experiment is shared by all the worker threads and must therefore be thread-safe.
+	 *
+	 * @param exp             experiment to be run each time
+	 * @param n               number of runs to be performed
+	 * @param master          generator from which the random source of each chunk is split
+	 * @param runsPerChunk    number of runs simulated with the same random source
+	 * @param numberOfThreads number of worker threads
+	 * @param stat            collector to be used to collect the results of each experiment
+	 * @throws IllegalArgumentException if runsPerChunk or numberOfThreads is not positive
+	 */
+	public static void simulateNRunsInParallel(Experiment exp,
+											   long n,
+											   RandomGenerator.SplittableGenerator master,
+											   long runsPerChunk,
+											   int numberOfThreads,
+											   StatCollector stat) {
+		simulateNRunsInParallel(exp, n, master, runsPerChunk, numberOfThreads, stat, null);
+	}
+
+	/**
+	 * Same as {@link #simulateNRunsInParallel(Experiment, long, RandomGenerator.SplittableGenerator, long, int,
+	 * StatCollector)}, but also reports the progress of the simulation in progress each time a chunk is merged
+	 * into stat.
+	 *
+	 * @param exp             experiment to be run each time
+	 * @param n               number of runs to be performed
+	 * @param master          generator from which the random source of each chunk is split
+	 * @param runsPerChunk    number of runs simulated with the same random source
+	 * @param numberOfThreads number of worker threads
+	 * @param stat            collector to be used to collect the results of each experiment
+	 * @param progress        progress to be updated during the simulation, or null
+	 * @throws IllegalArgumentException if runsPerChunk or numberOfThreads is not positive
+	 */
+	public static void simulateNRunsInParallel(Experiment exp,
+											   long n,
+											   RandomGenerator.SplittableGenerator master,
+											   long runsPerChunk,
+											   int numberOfThreads,
+											   StatCollector stat,
+											   SimulationProgress progress) {
+		// Check arguments
+		if (runsPerChunk <= 0) {
+			throw new IllegalArgumentException("Number of runs per chunk should be positive.");
+		}
+		if (numberOfThreads <= 0) {
+			throw new IllegalArgumentException("Number of threads should be positive.");
+		}
+
+		if (progress != null) {
+			progress.start(stat);
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		try {
+			// Chunks are submitted at most two per thread ahead of the next chunk to be merged, bounding the pending ones
+			Deque<Future<StatCollector>> chunks = new ArrayDeque<>();
+			long first = 0;
+			while (first < n || !chunks.isEmpty()) {
+				while (first < n && chunks.size() < 2 * numberOfThreads) {
+					long runs = Math.min(runsPerChunk, n - first);
+					// Streams are split here, in chunk order, so that they do not depend on the scheduling of the chunks
+					RandomGenerator rnd = master.split();
+					chunks.add(executor.submit(() -> {
+						StatCollector chunkStat = stat.newCollector();
+						simulateNRuns(exp, runs, rnd, chunkStat);
+						return chunkStat;
+					}));
+					first += runs;
+				}
+
+				stat.merge(await(chunks.remove()));
+				if (progress != null) {
+					progress.update(stat, false);
+				}
+			}
+			if (progress != null) {
+				progress.update(stat, true);
+			}
+		} finally {
+			shutdown(executor);
 		}
 	}
 
@@ -53,34 +311,607 @@ public class MonteCarloSimulation {
 													double maxHalfWidth,
 													long initialNumberOfRuns,
 													long additionalNumberOfRuns,
-													Random rnd,
+													RandomGenerator rnd,
 													StatCollector stat) {
+		simulateTillGivenCIHalfWidth(n -> simulateNRuns(exp, n, rnd, stat), level, maxHalfWidth,
+				initialNumberOfRuns, additionalNumberOfRuns, stat);
+	}
+
+	/**
+	 * Same as {@link #simulateTillGivenCIHalfWidth(Experiment, double, double, long, long, RandomGenerator,
+	 * StatCollector)}, but also reports the progress of the simulation in progress after each batch of runs.
+	 *
+	 * @param exp                    experiment to be run each time
+	 * @param level                  confidence level of the confidence interval
+	 * @param maxHalfWidth           maximal half width of the confidence interval
+	 * @param initialNumberOfRuns    initial number of runs to be performed
+	 * @param additionalNumberOfRuns additional number of runs to be performed if C.I. is too wide
+	 * @param rnd                    random source to be used to simulate the experiment
+	 * @param stat                   collector to be used to collect the results of each experiment
+	 * @param progress               progress to be updated during the simulation
+	 */
+	public static void simulateTillGivenCIHalfWidth(Experiment exp,
+													double level,
+													double maxHalfWidth,
+													long initialNumberOfRuns,
+													long additionalNumberOfRuns,
+													RandomGenerator rnd,
+													StatCollector stat,
+													SimulationProgress progress) {
+		progress.start(stat);
+		simulateTillGivenCIHalfWidth(n -> simulateBatches(exp, n, rnd, stat, progress), level, maxHalfWidth,
+				initialNumberOfRuns, additionalNumberOfRuns, stat);
+		progress.update(stat, true);
+	}
+
+	/**
+	 * Same as {@link #simulateTillGivenCIHalfWidth(Experiment, double, double, long, long, RandomGenerator,
+	 * StatCollector)}, but simulates antithetic pairs of runs instead of single runs.
+	 * <p>
+	 * Each observation added to stat is the average of two runs: one using uniforms U drawn from rnd and one using
+	 * the antithetic uniforms 1 - 2^-53 - U (see {@link #simulateNAntitheticPairs}). The numbers of runs given as arguments
+	 * are thus numbers of pairs, each one costing two runs of the experiment.
+	 *
+	 * @param exp                     experiment to be run each time
+	 * @param level                   confidence level of the confidence interval
+	 * @param maxHalfWidth            maximal half width of the confidence interval
+	 * @param initialNumberOfPairs    initial number of pairs of runs to be performed
+	 * @param additionalNumberOfPairs additional number of pairs of runs to be performed if C.I. is too wide
+	 * @param rnd                     random source to be used to simulate the experiment
+	 * @param stat                    collector to be used to collect the average of each pair of runs
+	 */
+	public static void simulateTillGivenCIHalfWidthAntithetic(Experiment exp,
+															  double level,
+															  double maxHalfWidth,
+															  long initialNumberOfPairs,
+															  long additionalNumberOfPairs,
+															  RandomGenerator rnd,
+															  StatCollector stat) {
+		simulateTillGivenCIHalfWidth(n -> simulateNAntitheticPairs(exp, n, rnd, stat), level, maxHalfWidth,
+				initialNumberOfPairs, additionalNumberOfPairs, stat);
+	}
+
+	/**
+	 * Same as {@link #simulateTillGivenCIHalfWidth(Experiment, double, double, long, long, RandomGenerator,
+	 * StatCollector)}, for an experiment with control variates.
+	 * <p>
+	 * The initial runs act as a pilot phase: the C.I. is first computed, and the number of runs needed
+	 * estimated, once the coefficients of the controls have been estimated from them. The coefficients are
+	 * then updated with all the subsequent runs.
+	 *
+	 * @param exp                    experiment to be run each time
+	 * @param level                  confidence level of the confidence interval
+	 * @param maxHalfWidth           maximal half width of the confidence interval
+	 * @param initialNumberOfRuns    number of runs of the pilot phase
+	 * @param additionalNumberOfRuns additional number of runs to be performed if C.I. is too wide
+	 * @param rnd                    random source to be used to simulate the experiment
+	 * @param stat                   collector to be used to collect the results of each experiment and their controls
+	 */
+	public static void simulateTillGivenCIHalfWidth(ControlledExperiment exp,
+													double level,
+													double maxHalfWidth,
+													long initialNumberOfRuns,
+													long additionalNumberOfRuns,
+													RandomGenerator rnd,
+													ControlVariateCollector stat) {
+		simulateTillGivenCIHalfWidth(n -> simulateNRuns(exp, n, rnd, stat),
+				() -> stat.getConfidenceIntervalHalfWidth(level) / maxHalfWidth, initialNumberOfRuns,
+				additionalNumberOfRuns);
+	}
+
+	/**
+	 * Same as {@link #simulateTillGivenCIHalfWidth(Experiment, double, double, long, long, RandomGenerator,
+	 * StatCollector)}, for an experiment with several outputs, all of them being estimated from the same runs.
+	 * <p>
+	 * Runs are simulated until the C.I. of each output is no wider than its maximal half width. If joint is true,
+	 * the C.I.s are simultaneous: all of them contain their means with probability at least level (see
+	 * {@link MultivariateStatCollector#getJointConfidenceIntervalHalfWidths}). Otherwise, each C.I. has level on
+	 * its own. Outputs whose maximal half width is Double.POSITIVE_INFINITY are estimated without any target.
+	 *
+	 * @param exp                    experiment to be run each time
+	 * @param level                  confidence level of the confidence intervals
+	 * @param maxHalfWidths          maximal half width of the confidence interval of each output
+	 * @param joint                  whether the confidence intervals are simultaneous
+	 * @param initialNumberOfRuns    initial number of runs to be performed
+	 * @param additionalNumberOfRuns additional number of runs to be performed if a C.I. is too wide
+	 * @param rnd                    random source to be used to simulate the experiment
+	 * @param stat                   collector to be used to collect the outputs of each experiment
+	 * @throws IllegalArgumentException if there is not a maximal half width per output or if stat does not have
+	 *                                  the dimension of the outputs of exp
+	 */
+	public static void simulateTillGivenCIHalfWidth(MultiOutputExperiment exp,
+													double level,
+													double[] maxHalfWidths,
+													boolean joint,
+													long initialNumberOfRuns,
+													long additionalNumberOfRuns,
+													RandomGenerator rnd,
+													MultivariateStatCollector stat) {
+		if (maxHalfWidths.length != exp.getNumberOfOutputs()) {
+			throw new IllegalArgumentException("A maximal half width should be given for each output.");
+		}
+		// The widest C.I. relative to its target decides of the number of runs
+		DoubleSupplier halfWidthRatio = () -> {
+			double[] halfWidths = joint ? stat.getJointConfidenceIntervalHalfWidths(level) : null;
+			double maxRatio = 0.0;
+			for (int j = 0; j < maxHalfWidths.length; ++j) {
+				double halfWidth = joint ? halfWidths[j] : stat.getConfidenceIntervalHalfWidth(j, level);
+				maxRatio = Math.max(maxRatio, halfWidth / maxHalfWidths[j]);
+			}
+			return maxRatio;
+		};
+		simulateTillGivenCIHalfWidth(n -> simulateNRuns(exp, n, rnd, stat), halfWidthRatio,
+				initialNumberOfRuns, additionalNumberOfRuns);
+	}
+
+	/**
+	 * Stopping rule of {@link #simulateTillGivenCIHalfWidth(Experiment, double, double, long, long, RandomGenerator,
+	 * StatCollector)}, for any way of simulating runs.
+	 *
+	 * @param simulator              simulates the given number of runs and collects their results in stat
+	 * @param level                  confidence level of the confidence interval
+	 * @param maxHalfWidth           maximal half width of the confidence interval
+	 * @param initialNumberOfRuns    initial number of runs to be performed
+	 * @param additionalNumberOfRuns additional number of runs to be performed if C.I. is too wide
+	 * @param stat                   collector in which simulator collects the results
+	 */
+	static void simulateTillGivenCIHalfWidth(LongConsumer simulator,
+											 double level,
+											 double maxHalfWidth,
+											 long initialNumberOfRuns,
+											 long additionalNumberOfRuns,
+											 StatCollector stat) {
+		simulateTillGivenCIHalfWidth(simulator, () -> stat.getConfidenceIntervalHalfWidth(level) / maxHalfWidth,
+				initialNumberOfRuns, additionalNumberOfRuns);
+	}
+
+	/**
+	 * Stopping rule of {@link #simulateTillGivenCIHalfWidth(Experiment, double, double, long, long, RandomGenerator,
+	 * StatCollector)}, for any way of simulating runs and of measuring the width of the C.I.s.
+	 *
+	 * @param simulator              simulates the given number of runs and collects their results
+	 * @param halfWidthRatio         returns the ratio of the current half width of the C.I. to the maximal one,
+	 *                               the largest of these ratios if several C.I.s are computed
+	 * @param initialNumberOfRuns    initial number of runs to be performed
+	 * @param additionalNumberOfRuns additional number of runs to be performed if C.I. is too wide
+	 */
+	static void simulateTillGivenCIHalfWidth(LongConsumer simulator,
+											 DoubleSupplier halfWidthRatio,
+											 long initialNumberOfRuns,
+											 long additionalNumberOfRuns) {
         // Step 1: Perform the initial number of runs
-        simulateNRuns(exp, initialNumberOfRuns, rnd, stat);
+        simulator.accept(initialNumberOfRuns);
 
         // Step 2: Calculate amount of runs needed for desired confidence interval half-width
-        double currentHalfWidth = stat.getConfidenceIntervalHalfWidth(level);
+        double currentRatio = halfWidthRatio.getAsDouble();
         // If the current half-width is already within the limit, no further action is needed
-        if (currentHalfWidth <= maxHalfWidth) {
+        if (currentRatio <= 1.0) {
             return;
         }
 
         // Calculate the total number of runs needed using the scaling relationship:
         // n_needed = n_current * (currentHalfWidth / maxHalfWidth)^2
-        double totalRunsNeeded = initialNumberOfRuns * Math.pow(currentHalfWidth / maxHalfWidth, 2);
+        double totalRunsNeeded = initialNumberOfRuns * Math.pow(currentRatio, 2);
         long additionalRunsNeeded = (long) totalRunsNeeded - initialNumberOfRuns;
 
         // Round up to the nearest multiple of additionalNumberOfRuns
         long N = ((additionalRunsNeeded + additionalNumberOfRuns - 1) / additionalNumberOfRuns) * additionalNumberOfRuns;
 
         // Step 3: Continue simulating for the N runs
-        simulateNRuns(exp, N, rnd, stat);
+        simulator.accept(N);
 
         // Step 4: Check if the confidence interval half-width is within the desired limit
-        currentHalfWidth = stat.getConfidenceIntervalHalfWidth(level);
-        while (currentHalfWidth > maxHalfWidth) {
-            simulateNRuns(exp, additionalNumberOfRuns, rnd, stat);
-            currentHalfWidth = stat.getConfidenceIntervalHalfWidth(level);
+        currentRatio = halfWidthRatio.getAsDouble();
+        while (currentRatio > 1.0) {
+            simulator.accept(additionalNumberOfRuns);
+            currentRatio = halfWidthRatio.getAsDouble();
         }
 	}
+
+	/**
+	 * Same as {@link #simulateTillGivenCIHalfWidthInParallel(Experiment, double, double, long, long,
+	 * RandomGenerator.SplittableGenerator, int, StatCollector)}, with a SplittableRandom initialized with seed
+	 * as master generator.
+	 *
+	 * @param exp                 experiment to be run each time
+	 * @param level               confidence level of the confidence interval
+	 * @param maxHalfWidth        maximal half width of the confidence interval
+	 * @param initialNumberOfRuns minimal number of runs to be performed before the C.I. is first checked
+	 * @param runsPerBatch        number of runs simulated by a worker between two checks of the C.I.
+	 * @param seed                master seed from which the random source of each batch is derived
+	 * @param numberOfThreads     number of worker threads
+	 * @param stat                collector to be used to collect the results of each experiment
+	 * @throws IllegalArgumentException if runsPerBatch or numberOfThreads is not positive
+	 */
+	public static void simulateTillGivenCIHalfWidthInParallel(Experiment exp,
+															  double level,
+															  double maxHalfWidth,
+															  long initialNumberOfRuns,
+															  long runsPerBatch,
+															  long seed,
+															  int numberOfThreads,
+															  StatCollector stat) {
+		simulateTillGivenCIHalfWidthInParallel(exp, level, maxHalfWidth, initialNumberOfRuns, runsPerBatch,
+				new SplittableRandom(seed), numberOfThreads, stat);
+	}
+
+	/**
+	 * Simulates experiment exp on numberOfThreads worker threads until the 95% confidence interval half width
+	 * is no more than maxHalfWidth, and collects the results in stat.
+	 * <p>
+	 * The workers keep simulating numbered batches of runsPerBatch runs, each one with its own random source
+	 * split from master and its own collector created by {@link StatCollector#newCollector() stat.newCollector()}.
+	 * Meanwhile, the calling thread merges the completed batches into stat in batch order and recomputes the C.I.
+	 * after each batch, as soon as at least initialNumberOfRuns runs have been merged. The workers start at most two
+	 * batches per thread ahead of the next batch to be merged. When the C.I. is narrow enough, the workers are
+	 * stopped, the batches simulated beyond that point are discarded and the method returns once all the workers
+	 * have terminated.
+	 * <p>
+	 * Unlike {@link #simulateTillGivenCIHalfWidth}, at most runsPerBatch - 1 runs are collected into stat beyond the
+	 * first point at which the C.I. is narrow enough; the look-ahead batches simulated meanwhile, up to two per
+	 * thread, are discarded. For a given master generator state and batch size, the results do not depend on the
+	 * number of threads.
+	 * <p>
+	 * The experiment is shared by all the worker threads and must therefore be thread-safe.
+	 *
+	 * @param exp                 experiment to be run each time
+	 * @param level               confidence level of the confidence interval
+	 * @param maxHalfWidth        maximal half width of the confidence interval
+	 * @param initialNumberOfRuns minimal number of runs to be performed before the C.I. is first checked
+	 * @param runsPerBatch        number of runs simulated by a worker between two checks of the C.I.
+	 * @param master              generator from which the random source of each batch is split
+	 * @param numberOfThreads     number of worker threads
+	 * @param stat                collector to be used to collect the results of each experiment
+	 * @throws IllegalArgumentException if runsPerBatch or numberOfThreads is not positive
+	 */
+	public static void simulateTillGivenCIHalfWidthInParallel(Experiment exp,
+															  double level,
+															  double maxHalfWidth,
+															  long initialNumberOfRuns,
+															  long runsPerBatch,
+															  RandomGenerator.SplittableGenerator master,
+															  int numberOfThreads,
+															  StatCollector stat) {
+		simulateTillGivenCIHalfWidthInParallel(exp, level, maxHalfWidth, initialNumberOfRuns, runsPerBatch, master,
+				numberOfThreads, stat, null);
+	}
+
+	/**
+	 * Same as {@link #simulateTillGivenCIHalfWidthInParallel(Experiment, double, double, long, long,
+	 * RandomGenerator.SplittableGenerator, int, StatCollector)}, but also reports the progress of the simulation
+	 * in progress each time a batch is merged into stat.
+	 *
+	 * @param exp                 experiment to be run each time
+	 * @param level               confidence level of the confidence interval
+	 * @param maxHalfWidth        maximal half width of the confidence interval
+	 * @param initialNumberOfRuns minimal number of runs to be performed before the C.I. is first checked
+	 * @param runsPerBatch        number of runs simulated by a worker between two checks of the C.I.
+	 * @param master              generator from which the random source of each batch is split
+	 * @param numberOfThreads     number of worker threads
+	 * @param stat                collector to be used to collect the results of each experiment
+	 * @param progress            progress to be updated during the simulation, or null
+	 * @throws IllegalArgumentException if runsPerBatch or numberOfThreads is not positive
+	 */
+	public static void simulateTillGivenCIHalfWidthInParallel(Experiment exp,
+															  double level,
+															  double maxHalfWidth,
+															  long initialNumberOfRuns,
+															  long runsPerBatch,
+															  RandomGenerator.SplittableGenerator master,
+															  int numberOfThreads,
+															  StatCollector stat,
+															  SimulationProgress progress) {
+		simulateInParallel(exp, level, maxHalfWidth, initialNumberOfRuns, runsPerBatch, master, numberOfThreads, stat,
+				progress, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Simulates experiment exp on all the available processors for the given wall-clock budget, and collects the
+	 * results in stat.
+	 * <p>
+	 * Same as {@link #simulateForDuration(Experiment, Duration, double, double, long, long,
+	 * RandomGenerator.SplittableGenerator, int, StatCollector)}, without target half width and with one worker
+	 * thread per available processor.
+	 *
+	 * @param exp          experiment to be run each time
+	 * @param budget       wall-clock time given to the simulation
+	 * @param level        confidence level of the confidence interval
+	 * @param runsPerBatch number of runs simulated by a worker between two checks of the deadline
+	 * @param master       generator from which the random source of each batch is split
+	 * @param stat         collector to be used to collect the results of each experiment
+	 * @return the number of collected runs, the achieved half width and the throughput of the simulation
+	 * @throws IllegalArgumentException if budget is negative or if runsPerBatch is not positive
+	 */
+	public static SimulationResult simulateForDuration(Experiment exp,
+													   Duration budget,
+													   double level,
+													   long runsPerBatch,
+													   RandomGenerator.SplittableGenerator master,
+													   StatCollector stat) {
+		return simulateForDuration(exp, budget, level, Double.NEGATIVE_INFINITY, 0L, runsPerBatch, master,
+				Runtime.getRuntime().availableProcessors(), stat);
+	}
+
+	/**
+	 * Simulates experiment exp on numberOfThreads worker threads until the confidence interval half width is no
+	 * more than maxHalfWidth or the wall-clock budget is spent, whichever comes first, and collects the results in
+	 * stat.
+	 * <p>
+	 * The simulation proceeds as {@link #simulateTillGivenCIHalfWidthInParallel(Experiment, double, double, long,
+	 * long, RandomGenerator.SplittableGenerator, int, StatCollector)}, the deadline being checked by the workers
+	 * before each batch and between the blocks of runs of a batch, and by the calling thread while waiting for the
+	 * batches. At the deadline, the batches still being simulated are abandoned, and they are discarded together
+	 * with those completed ahead of a missing one: stat only contains the first batches, in order. The method
+	 * returns once all the workers have terminated, shortly after the deadline whatever the size of the batches;
+	 * runsPerBatch should still be small enough for a batch to take a small part of the budget, as the runs of the
+	 * discarded batches are wasted.
+	 * <p>
+	 * The experiment is shared by all the worker threads and must therefore be thread-safe.
+	 *
+	 * @param exp                 experiment to be run each time
+	 * @param budget              wall-clock time given to the simulation
+	 * @param level               confidence level of the confidence interval
+	 * @param maxHalfWidth        maximal half width of the confidence interval
+	 * @param initialNumberOfRuns minimal number of runs to be performed before the C.I. is first checked
+	 * @param runsPerBatch        number of runs simulated by a worker between two checks of the C.I.
+	 * @param master              generator from which the random source of each batch is split
+	 * @param numberOfThreads     number of worker threads
+	 * @param stat                collector to be used to collect the results of each experiment
+	 * @return the number of collected runs, the achieved half width and the throughput of the simulation
+	 * @throws IllegalArgumentException if budget is negative or if runsPerBatch or numberOfThreads is not positive
+	 */
+	public static SimulationResult simulateForDuration(Experiment exp,
+													   Duration budget,
+													   double level,
+													   double maxHalfWidth,
+													   long initialNumberOfRuns,
+													   long runsPerBatch,
+													   RandomGenerator.SplittableGenerator master,
+													   int numberOfThreads,
+													   StatCollector stat) {
+		if (budget.isNegative()) {
+			throw new IllegalArgumentException("Time budget should not be negative.");
+		}
+		long start = System.nanoTime();
+		long initialRuns = stat.getNumberOfObs();
+		// Budgets beyond Long.MAX_VALUE ns (292 years) are as good as no deadline
+		long budgetNanos = budget.compareTo(Duration.ofNanos(Long.MAX_VALUE)) < 0 ? budget.toNanos() : Long.MAX_VALUE;
+		boolean targetReached = simulateInParallel(exp, level, maxHalfWidth, initialNumberOfRuns, runsPerBatch, master,
+				numberOfThreads, stat, null, budgetNanos);
+		return new SimulationResult(stat.getNumberOfObs() - initialRuns, stat.getConfidenceIntervalHalfWidth(level),
+				System.nanoTime() - start, targetReached);
+	}
+
+	/**
+	 * Coordinator of the parallel simulations: merges the batches in order into stat until the C.I. is narrow
+	 * enough or budgetNanos have elapsed, and returns whether the C.I. is narrow enough.
+	 */
+	private static boolean simulateInParallel(Experiment exp,
+											  double level,
+											  double maxHalfWidth,
+											  long initialNumberOfRuns,
+											  long runsPerBatch,
+											  RandomGenerator.SplittableGenerator master,
+											  int numberOfThreads,
+											  StatCollector stat,
+											  SimulationProgress progress,
+											  long budgetNanos) {
+		// Check arguments
+		if (runsPerBatch <= 0) {
+			throw new IllegalArgumentException("Number of runs per batch should be positive.");
+		}
+		if (numberOfThreads <= 0) {
+			throw new IllegalArgumentException("Number of threads should be positive.");
+		}
+
+		long start = System.nanoTime();
+		if (progress != null) {
+			progress.start(stat);
+		}
+		// Workers may run ahead of the missing batch by two batches per thread at most, bounding the pending batches
+		BatchProducer producer = new BatchProducer(exp, runsPerBatch, master, stat::newCollector, 2 * numberOfThreads,
+				start, budgetNanos);
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		try {
+			for (int i = 0; i < numberOfThreads; ++i) {
+				executor.execute(producer);
+			}
+
+			// Batches may complete out of order: keep them aside until all the previous ones have been merged
+			Map<Long, StatCollector> pending = new HashMap<>();
+			long nextBatch = 0;
+			long initialRuns = stat.getNumberOfObs();
+			while (true) {
+				long remaining = budgetNanos - (System.nanoTime() - start);
+				Batch batch = remaining > 0 ? producer.poll(remaining) : null;
+				if (batch == null) {
+					// Deadline reached
+					if (progress != null) {
+						progress.update(stat, true);
+					}
+					return false;
+				}
+				pending.put(batch.index, batch.stat);
+
+				StatCollector next;
+				while ((next = pending.remove(nextBatch)) != null) {
+					stat.merge(next);
+					++nextBatch;
+					producer.release();
+					boolean done = stat.getNumberOfObs() - initialRuns >= initialNumberOfRuns
+							&& stat.getConfidenceIntervalHalfWidth(level) <= maxHalfWidth;
+					if (progress != null) {
+						progress.update(stat, done);
+					}
+					if (done) {
+						return true;
+					}
+				}
+			}
+		} finally {
+			producer.stop();
+			shutdown(executor);
+		}
+	}
+
+	/**
+	 * Stops the worker threads of executor and waits for them to terminate, so that no simulation keeps running once
+	 * the calling method has returned.
+	 */
+	static void shutdown(ExecutorService executor) {
+		executor.shutdownNow();
+		try {
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Waits for the given task to complete and returns its result, rethrowing any exception it raised.
+	 */
+	static <T> T await(Future<T> task) {
+		try {
+			return task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for simulation results.", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Batch of runs simulated by a worker thread.
+	 */
+	private static final class Batch {
+		final long index;          // position of the batch in the sequence of batches
+		final StatCollector stat;  // results of the runs of the batch
+		final Throwable failure;   // exception raised while simulating the batch, if any
+
+		Batch(long index, StatCollector stat, Throwable failure) {
+			this.index = index;
+			this.stat = stat;
+			this.failure = failure;
+		}
+	}
+
+	/**
+	 * Worker task simulating numbered batches of runs until stopped. The same instance is shared by all the
+	 * worker threads.
+	 */
+	private static final class BatchProducer implements Runnable {
+		private final Experiment exp;
+		private final long runsPerBatch;
+		private final RandomGenerator.SplittableGenerator master;
+		private final Supplier<StatCollector> collectors;  // creates the collector of each batch
+		private final BlockingQueue<Batch> completed = new LinkedBlockingQueue<>();
+		private final Semaphore permits; // batches that can be started before the next one is merged
+		private final long start;        // value of System.nanoTime() at the start of the simulation
+		private final long budgetNanos;  // time after which no more runs are simulated, in ns
+		private long nextIndex = 0;
+		private volatile boolean stopped = false;
+
+		BatchProducer(Experiment exp, long runsPerBatch, RandomGenerator.SplittableGenerator master,
+					  Supplier<StatCollector> collectors, int maxAhead, long start, long budgetNanos) {
+			this.exp = exp;
+			this.runsPerBatch = runsPerBatch;
+			this.master = master;
+			this.collectors = collectors;
+			this.permits = new Semaphore(maxAhead);
+			this.start = start;
+			this.budgetNanos = budgetNanos;
+		}
+
+		@Override
+		public void run() {
+			double[] results = new double[(int) Math.min(BATCH_SIZE, runsPerBatch)];
+			while (!stopped && System.nanoTime() - start < budgetNanos) {
+				try {
+					permits.acquire();
+				} catch (InterruptedException e) {
+					// Interrupted by the coordinator once it has returned
+					return;
+				}
+
+				long index;
+				RandomGenerator rnd;
+				// Index and stream are drawn together so that each batch always gets the same random source
+				synchronized (this) {
+					index = nextIndex++;
+					rnd = master.split();
+				}
+
+				try {
+					StatCollector batchStat = collectors.get();
+					if (!simulateBatch(rnd, batchStat, results)) {
+						return;
+					}
+					completed.add(new Batch(index, batchStat, null));
+				} catch (RuntimeException | Error e) {
+					completed.add(new Batch(index, null, e));
+					return;
+				}
+			}
+		}
+
+		/**
+		 * Simulates the runs of a batch in blocks, as {@link #simulateNRuns(Experiment, long, RandomGenerator,
+		 * StatCollector)} does, and returns false if the producer was stopped or the deadline reached before the end
+		 * of the batch.
+		 */
+		private boolean simulateBatch(RandomGenerator rnd, StatCollector batchStat, double[] results) {
+			for (long run = 0; run < runsPerBatch; run += results.length) {
+				// A batch ending after the deadline would be discarded anyway
+				if (stopped || System.nanoTime() - start >= budgetNanos) {
+					return false;
+				}
+				int len = (int) Math.min(results.length, runsPerBatch - run);
+				exp.executeBatch(rnd, results, len);
+				batchStat.addAll(results, len);
+			}
+			return true;
+		}
+
+		/**
+		 * Allows one more batch to be started, once a batch has been merged.
+		 */
+		void release() {
+			permits.release();
+		}
+
+		/**
+		 * Waits at most timeoutNanos for the next completed batch, rethrowing any exception raised by a worker.
+		 * Returns null if no batch completed in time.
+		 */
+		Batch poll(long timeoutNanos) {
+			Batch batch;
+			try {
+				batch = completed.poll(timeoutNanos, TimeUnit.NANOSECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for simulation results.", e);
+			}
+			if (batch == null) {
+				return null;
+			}
+			if (batch.failure instanceof RuntimeException) {
+				throw (RuntimeException) batch.failure;
+			}
+			if (batch.failure instanceof Error) {
+				throw (Error) batch.failure;
+			}
+			return batch;
+		}
+
+		void stop() {
+			stopped = true;
+		}
+	}
 }
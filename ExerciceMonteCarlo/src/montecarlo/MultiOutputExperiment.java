@@ -0,0 +1,26 @@
+package montecarlo;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Experiments whose runs produce several related outputs at once, so that all of them can be estimated from a
+ * single set of runs, see {@link MonteCarloSimulation#simulateNRuns(MultiOutputExperiment, long, RandomGenerator,
+ * statistics.MultivariateStatCollector)}.
+ */
+public interface MultiOutputExperiment {
+
+	/**
+	 * Returns the number of outputs of each run.
+	 *
+	 * @return the number of outputs
+	 */
+	int getNumberOfOutputs();
+
+	/**
+	 * Simulates a run of the experiment, using rnd as a source of pseudo-random numbers.
+	 *
+	 * @param rnd     random source to be used to simulate the run
+	 * @param outputs array of length at least the number of outputs receiving the outputs of the run
+	 */
+	void execute(RandomGenerator rnd, double[] outputs);
+}
@@ -0,0 +1,25 @@
+package montecarlo;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Continuous distributions from which importance sampling draws its points, see {@link ImportanceSampling}.
+ */
+public interface ProposalDistribution {
+
+	/**
+	 * Draws a point from the distribution, using rnd as a source of pseudo-random numbers.
+	 *
+	 * @param rnd random source to be used to draw the point
+	 * @return the drawn point
+	 */
+	double sample(RandomGenerator rnd);
+
+	/**
+	 * Returns the probability density of the distribution at x.
+	 *
+	 * @param x point at which the density is evaluated
+	 * @return the density at x
+	 */
+	double density(double x);
+}
@@ -0,0 +1,130 @@
+package montecarlo;
+
+import statistics.StatCollector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator;
+
+/**
+ * This class provides methods for randomized quasi-Monte Carlo simulations.
+ * <p>
+ * Each randomization of a low-discrepancy sequence gives an unbiased estimate of the mean, as the average of the
+ * results of the experiment at its first points. The estimates of independent randomizations are collected in a
+ * {@link StatCollector}, whose C.I. is thus a valid C.I. for the mean.
+ */
+public class QuasiMonteCarloSimulation {
+
+	/**
+	 * Private constructor. Makes it impossible to instantiate.
+	 */
+	private QuasiMonteCarloSimulation() {
+	}
+
+	/**
+	 * Same as {@link #simulate(Experiment, QuasiRandomSequence, long, long, RandomGenerator.SplittableGenerator,
+	 * int, StatCollector)}, with a SplittableRandom initialized with seed as master generator.
+	 *
+	 * @param exp                    experiment to be run at each point
+	 * @param sequence               low-discrepancy sequence to be randomized
+	 * @param pointsPerRandomization number of points of each randomization
+	 * @param numberOfRandomizations number of independent randomizations
+	 * @param seed                   master seed from which the random source of each randomization is derived
+	 * @param numberOfThreads        number of worker threads
+	 * @param stat                   collector to be used to collect the estimate of each randomization
+	 * @throws IllegalArgumentException if pointsPerRandomization or numberOfThreads is not positive
+	 */
+	public static void simulate(Experiment exp,
+								QuasiRandomSequence sequence,
+								long pointsPerRandomization,
+								long numberOfRandomizations,
+								long seed,
+								int numberOfThreads,
+								StatCollector stat) {
+		simulate(exp, sequence, pointsPerRandomization, numberOfRandomizations, new SplittableRandom(seed),
+				numberOfThreads, stat);
+	}
+
+	/**
+	 * Simulates experiment exp at the first pointsPerRandomization points of numberOfRandomizations independent
+	 * randomizations of sequence, on numberOfThreads worker threads, and collects the average result of each
+	 * randomization in stat.
+	 * <p>
+	 * Experiments implementing {@link UnitCubeExperiment} are evaluated directly at the points. Other experiments
+	 * get the coordinates of the current point as the successive values of nextDouble() on their random source;
+	 * they should therefore draw at most d uniforms per run, further values being pseudo-random.
+	 * <p>
+	 * Each randomization uses its own random source, split from master, and the estimates are collected in the
+	 * order of the randomizations, so that the results do not depend on the number of threads. The experiment is
+	 * shared by all the worker threads and must therefore be thread-safe.
+	 *
+	 * @param exp                    experiment to be run at each point
+	 * @param sequence               low-discrepancy sequence to be randomized
+	 * @param pointsPerRandomization number of points of each randomization
+	 * @param numberOfRandomizations number of independent randomizations
+	 * @param master                 generator from which the random source of each randomization is split
+	 * @param numberOfThreads        number of worker threads
+	 * @param stat                   collector to be used to collect the estimate of each randomization
+	 * @throws IllegalArgumentException if pointsPerRandomization or numberOfThreads is not positive
+	 */
+	public static void simulate(Experiment exp,
+								QuasiRandomSequence sequence,
+								long pointsPerRandomization,
+								long numberOfRandomizations,
+								RandomGenerator.SplittableGenerator master,
+								int numberOfThreads,
+								StatCollector stat) {
+		// Check arguments
+		if (pointsPerRandomization <= 0) {
+			throw new IllegalArgumentException("Number of points per randomization should be positive.");
+		}
+		if (numberOfThreads <= 0) {
+			throw new IllegalArgumentException("Number of threads should be positive.");
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		try {
+			List<Future<Double>> estimates = new ArrayList<>();
+			for (long r = 0; r < numberOfRandomizations; ++r) {
+				RandomGenerator rnd = master.split();
+				estimates.add(executor.submit(() -> simulateRandomization(exp, sequence.randomize(rnd), pointsPerRandomization, rnd)));
+			}
+
+			for (Future<Double> estimate : estimates) {
+				stat.add(MonteCarloSimulation.await(estimate));
+			}
+		} finally {
+			MonteCarloSimulation.shutdown(executor);
+		}
+	}
+
+	/**
+	 * Returns the average result of experiment exp at the first n points of the randomized sequence.
+	 */
+	private static double simulateRandomization(Experiment exp, QuasiRandomSequence sequence, long n, RandomGenerator rnd) {
+		double sum = 0.0;
+		if (exp instanceof UnitCubeExperiment) {
+			UnitCubeExperiment unitCubeExp = (UnitCubeExperiment) exp;
+			double[] u = new double[Math.max(sequence.getDimension(), unitCubeExp.getDimension())];
+			for (long i = 0; i < n; ++i) {
+				sequence.getPoint(i, u);
+				// Coordinates beyond the dimension of the sequence are pseudo-random, as for other experiments
+				for (int j = sequence.getDimension(); j < u.length; ++j) {
+					u[j] = rnd.nextDouble();
+				}
+				sum += unitCubeExp.execute(u);
+			}
+		} else {
+			QuasiRandomGenerator points = new QuasiRandomGenerator(sequence, rnd);
+			for (long i = 0; i < n; ++i) {
+				points.moveTo(i);
+				sum += exp.execute(points);
+			}
+		}
+		return sum / n;
+	}
+}
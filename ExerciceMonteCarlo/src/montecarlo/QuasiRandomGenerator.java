@@ -0,0 +1,52 @@
+package montecarlo;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Random generator whose successive calls to {@link #nextDouble()} return the coordinates of the current point
+ * of a quasi-random sequence, so that experiments can be simulated at the points of the sequence without
+ * changing their logic.
+ * <p>
+ * Once the d coordinates of the current point are exhausted, and for all the other methods, values are drawn
+ * from an underlying pseudo-random generator.
+ */
+final class QuasiRandomGenerator implements RandomGenerator {
+
+	private final QuasiRandomSequence sequence;  // sequence of the points
+	private final RandomGenerator rnd;           // generator used beyond the coordinates of the points
+	private final double[] point;                // coordinates of the current point
+	private int position;                        // index of the next coordinate to be returned
+
+	/**
+	 * Creates a new generator returning the points of sequence, completed with values drawn from rnd.
+	 *
+	 * @param sequence sequence of the points
+	 * @param rnd      generator used beyond the coordinates of the points
+	 */
+	QuasiRandomGenerator(QuasiRandomSequence sequence, RandomGenerator rnd) {
+		this.sequence = sequence;
+		this.rnd = rnd;
+		point = new double[sequence.getDimension()];
+		position = point.length;
+	}
+
+	/**
+	 * Moves to the point of the sequence with the given index.
+	 *
+	 * @param index index of the point
+	 */
+	void moveTo(long index) {
+		sequence.getPoint(index, point);
+		position = 0;
+	}
+
+	@Override
+	public double nextDouble() {
+		return position < point.length ? point[position++] : rnd.nextDouble();
+	}
+
+	@Override
+	public long nextLong() {
+		return rnd.nextLong();
+	}
+}
@@ -0,0 +1,37 @@
+package montecarlo;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Low-discrepancy sequences of points of the unit hypercube [0, 1)^d, to be used for randomized quasi-Monte Carlo
+ * simulations with {@link QuasiMonteCarloSimulation}.
+ * <p>
+ * Implementations are immutable: randomizing a sequence returns a new sequence, so that independent
+ * randomizations can be simulated concurrently.
+ */
+public interface QuasiRandomSequence {
+
+	/**
+	 * Returns the dimension d of the points of the sequence.
+	 *
+	 * @return the dimension of the sequence
+	 */
+	int getDimension();
+
+	/**
+	 * Computes the point of the sequence with the given index.
+	 *
+	 * @param index index of the point, starting from 0
+	 * @param u     array of length at least d receiving the coordinates of the point
+	 */
+	void getPoint(long index, double[] u);
+
+	/**
+	 * Returns an independent random version of this sequence, each point of which is uniformly distributed over
+	 * the unit hypercube while the whole sequence keeps its low discrepancy.
+	 *
+	 * @param rnd random source to be used to randomize the sequence
+	 * @return the randomized sequence
+	 */
+	QuasiRandomSequence randomize(RandomGenerator rnd);
+}
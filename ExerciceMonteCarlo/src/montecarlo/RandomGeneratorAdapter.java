@@ -0,0 +1,101 @@
+package montecarlo;
+
+import java.util.Random;
+import java.util.random.RandomGenerator;
+
+/**
+ * Random whose values are drawn from another random generator, used to run experiments that only implement
+ * {@link Experiment#execute(Random)} with any {@link RandomGenerator}.
+ * <p>
+ * The generator cannot be reseeded through this class.
+ */
+final class RandomGeneratorAdapter extends Random {
+	private static final long serialVersionUID = 1L;
+
+	// Last adapter created by each thread, reused as long as the thread adapts the same generator
+	private static final ThreadLocal<RandomGeneratorAdapter> LAST_ADAPTER = new ThreadLocal<>();
+
+	private final transient RandomGenerator rnd;  // generator actually producing the values
+
+	/**
+	 * Creates a new Random drawing its values from rnd.
+	 *
+	 * @param rnd generator to draw the values from
+	 */
+	RandomGeneratorAdapter(RandomGenerator rnd) {
+		this.rnd = rnd;
+	}
+
+	/**
+	 * Returns rnd itself if it is a Random, or a Random drawing its values from rnd otherwise. The adapter is
+	 * reused by the calling thread as long as it adapts the same generator, since creating a Random costs far
+	 * more than drawing a value (the constructor of Random updates a shared seed and reads the clock).
+	 *
+	 * @param rnd generator to draw the values from
+	 * @return a Random drawing its values from rnd
+	 */
+	static Random of(RandomGenerator rnd) {
+		if (rnd instanceof Random) {
+			return (Random) rnd;
+		}
+		RandomGeneratorAdapter adapter = LAST_ADAPTER.get();
+		if (adapter == null || adapter.rnd != rnd) {
+			adapter = new RandomGeneratorAdapter(rnd);
+			LAST_ADAPTER.set(adapter);
+		}
+		return adapter;
+	}
+
+	/**
+	 * Not supported once the adapter is constructed.
+	 *
+	 * @throws UnsupportedOperationException always
+	 */
+	@Override
+	public void setSeed(long seed) {
+		// Called by the constructor of Random, before the generator is set
+		if (rnd != null) {
+			throw new UnsupportedOperationException("Adapted random generators cannot be reseeded.");
+		}
+	}
+
+	@Override
+	protected int next(int bits) {
+		return (int) (rnd.nextLong() >>> (64 - bits));
+	}
+
+	@Override
+	public int nextInt() {
+		return rnd.nextInt();
+	}
+
+	@Override
+	public int nextInt(int bound) {
+		return rnd.nextInt(bound);
+	}
+
+	@Override
+	public long nextLong() {
+		return rnd.nextLong();
+	}
+
+	@Override
+	public boolean nextBoolean() {
+		return rnd.nextBoolean();
+	}
+
+	@Override
+	public float nextFloat() {
+		return rnd.nextFloat();
+	}
+
+	@Override
+	public double nextDouble() {
+		return rnd.nextDouble();
+	}
+
+	@Override
+	public double nextGaussian() {
+		return rnd.nextGaussian();
+	}
+}
@@ -0,0 +1,59 @@
+package montecarlo;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Utility class to create the pseudo-random number generators available in the JDK by name, for instance
+ * "L64X128MixRandom", "Xoroshiro128PlusPlus", "Xoshiro256PlusPlus", "SplittableRandom" or "Random".
+ */
+public final class RandomGenerators {
+
+	/**
+	 * Private constructor. Makes it impossible to instantiate.
+	 */
+	private RandomGenerators() {
+	}
+
+	/**
+	 * Returns the names of all the generators that can be created, in alphabetical order.
+	 *
+	 * @return names of the available generators
+	 */
+	public static List<String> getAvailableNames() {
+		return RandomGeneratorFactory.all()
+				.map(RandomGeneratorFactory::name)
+				.sorted()
+				.toList();
+	}
+
+	/**
+	 * Creates a new generator of the given algorithm, initialized with seed.
+	 *
+	 * @param name name of the algorithm of the generator
+	 * @param seed seed of the generator
+	 * @return the new generator
+	 * @throws IllegalArgumentException if no generator with this name is available
+	 */
+	public static RandomGenerator create(String name, long seed) {
+		return RandomGeneratorFactory.of(name).create(seed);
+	}
+
+	/**
+	 * Creates a new splittable generator of the given algorithm, initialized with seed. Splittable generators
+	 * can be used as master generators for the parallel simulations of {@link MonteCarloSimulation}.
+	 *
+	 * @param name name of the algorithm of the generator
+	 * @param seed seed of the generator
+	 * @return the new generator
+	 * @throws IllegalArgumentException if no generator with this name is available or if it is not splittable
+	 */
+	public static RandomGenerator.SplittableGenerator createSplittable(String name, long seed) {
+		RandomGeneratorFactory<RandomGenerator> factory = RandomGeneratorFactory.of(name);
+		if (!factory.isSplittable()) {
+			throw new IllegalArgumentException("Random generator " + name + " is not splittable.");
+		}
+		return (RandomGenerator.SplittableGenerator) factory.create(seed);
+	}
+}
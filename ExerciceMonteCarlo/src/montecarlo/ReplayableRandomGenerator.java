@@ -0,0 +1,72 @@
+package montecarlo;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Random generator able to replay the uniforms it drew while recording, either unchanged or as their antithetic
+ * values. Used to drive several runs of experiments from related random streams.
+ * <p>
+ * The antithetic value of U is 1 - 2^-53 - U rather than 1 - U: uniforms are multiples of 2^-53 in [0, 1), which
+ * this reflection maps exactly onto each other, whereas 1 - U would be 1 for U = 0.
+ * <p>
+ * Only the values returned by {@link #nextDouble()} are recorded and replayed. Once the recorded values are
+ * exhausted, and for all the other methods, fresh values are drawn from the underlying generator.
+ */
+final class ReplayableRandomGenerator implements RandomGenerator {
+
+	private final RandomGenerator rnd;    // generator producing the fresh values
+	private double[] recorded = new double[16];
+	private int numberOfRecorded = 0;     // number of values recorded since the last call to record()
+	private int position = -1;            // index of the next value to be replayed, -1 while recording
+	private boolean antithetic = false;   // whether values are replayed as their antithetic values
+
+	/**
+	 * Creates a new generator drawing its fresh values from rnd.
+	 *
+	 * @param rnd generator to draw the fresh values from
+	 */
+	ReplayableRandomGenerator(RandomGenerator rnd) {
+		this.rnd = rnd;
+	}
+
+	/**
+	 * Forgets the recorded values and starts recording the values returned by {@link #nextDouble()}.
+	 */
+	void record() {
+		numberOfRecorded = 0;
+		position = -1;
+	}
+
+	/**
+	 * Stops recording and starts replaying the recorded values from the first one.
+	 *
+	 * @param antithetic whether the recorded values U are replayed as their antithetic values 1 - 2^-53 - U
+	 */
+	void replay(boolean antithetic) {
+		this.antithetic = antithetic;
+		position = 0;
+	}
+
+	@Override
+	public double nextDouble() {
+		if (position < 0) {
+			double u = rnd.nextDouble();
+			if (numberOfRecorded == recorded.length) {
+				recorded = Arrays.copyOf(recorded, 2 * recorded.length);
+			}
+			recorded[numberOfRecorded++] = u;
+			return u;
+		}
+		if (position < numberOfRecorded) {
+			double u = recorded[position++];
+			return antithetic ? Math.nextDown(1.0) - u : u;
+		}
+		return rnd.nextDouble();
+	}
+
+	@Override
+	public long nextLong() {
+		return rnd.nextLong();
+	}
+}
@@ -0,0 +1,324 @@
+package montecarlo;
+
+import statistics.StatCollector;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+
+/**
+ * This class provides methods to spread a simulation over several local JVM processes, called shards, and to
+ * merge their partial results.
+ * <p>
+ * Each shard is started with the same class path as the current JVM, creates the experiment and its collector by
+ * reflection from their class names and the arguments of their constructors, simulates its share of the runs and
+ * writes its collector to a shard file. Collectors other than {@link StatCollector}, such as quantile sketches,
+ * thus keep what they compute beyond the moments of the observations. The random source of shard s is the
+ * (s+1)-th stream split from a master generator created from a generator name and a seed, so that the shards use
+ * disjoint streams and the results only depend on the seed and the number of shards.
+ * <p>
+ * Shard files can be merged with {@link #merge}, in the same process or later, for instance after some shards
+ * were run again. Each shard file records its shard number, its collector and an identifier of its launch
+ * (experiment, collector, number of runs and of shards, generator and seed), so that a shard cannot be merged twice
+ * or with shards of another launch.
+ */
+public final class ShardedSimulation {
+	private static final int MAGIC = 0x4D435348;  // identifies shard files
+	private static final int VERSION = 3;         // version of the format of shard files
+
+	/**
+	 * Private constructor. Makes it impossible to instantiate.
+	 */
+	private ShardedSimulation() {
+	}
+
+	/**
+	 * Simulates n runs of an experiment over numberOfShards processes, collecting the results of each shard in a
+	 * {@link StatCollector}, and waits for all of them to complete.
+	 * <p>
+	 * Same as {@link #launch(String, String[], String, String[], long, int, String, long, Path)} with StatCollector
+	 * as the collector class.
+	 *
+	 * @param experimentClass name of the class of the experiment
+	 * @param experimentArgs  arguments of the constructor of the experiment
+	 * @param n               total number of runs to be performed
+	 * @param numberOfShards  number of shard processes
+	 * @param generatorName   name of the algorithm of the master generator, which must be splittable
+	 * @param seed            seed of the master generator
+	 * @param directory       directory in which the shard files are written
+	 * @return the shard files, in shard order
+	 * @throws IllegalArgumentException if numberOfShards is not positive
+	 * @throws IllegalStateException    if a shard fails
+	 * @throws IOException              if a shard process cannot be started
+	 */
+	public static List<Path> launch(String experimentClass,
+									String[] experimentArgs,
+									long n,
+									int numberOfShards,
+									String generatorName,
+									long seed,
+									Path directory) throws IOException {
+		return launch(experimentClass, experimentArgs, StatCollector.class.getName(), new String[0], n,
+				numberOfShards, generatorName, seed, directory);
+	}
+
+	/**
+	 * Simulates n runs of an experiment over numberOfShards processes and waits for all of them to complete. The
+	 * runs are spread as evenly as possible over the shards, and the output of the shards is that of this
+	 * process.
+	 * <p>
+	 * The experiment and the collector of the results are created in each shard by {@link Experiments#create} from
+	 * experimentClass and experimentArgs, and from collectorClass and collectorArgs. The collector class must be a
+	 * StatCollector with a public constructor accepting collectorArgs.
+	 *
+	 * @param experimentClass name of the class of the experiment
+	 * @param experimentArgs  arguments of the constructor of the experiment
+	 * @param collectorClass  name of the class of the collector of each shard
+	 * @param collectorArgs   arguments of the constructor of the collector
+	 * @param n               total number of runs to be performed
+	 * @param numberOfShards  number of shard processes
+	 * @param generatorName   name of the algorithm of the master generator, which must be splittable
+	 * @param seed            seed of the master generator
+	 * @param directory       directory in which the shard files are written
+	 * @return the shard files, in shard order
+	 * @throws IllegalArgumentException if numberOfShards is not positive or if the collector cannot be created
+	 * @throws IllegalStateException    if a shard fails
+	 * @throws IOException              if a shard process cannot be started
+	 */
+	public static List<Path> launch(String experimentClass,
+									String[] experimentArgs,
+									String collectorClass,
+									String[] collectorArgs,
+									long n,
+									int numberOfShards,
+									String generatorName,
+									long seed,
+									Path directory) throws IOException {
+		// Check arguments
+		if (numberOfShards <= 0) {
+			throw new IllegalArgumentException("Number of shards should be positive.");
+		}
+		// Fails here rather than in every shard
+		createCollector(collectorClass, collectorArgs);
+
+		String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+		List<Path> shardFiles = new ArrayList<>();
+		List<Process> processes = new ArrayList<>();
+		try {
+			for (int shard = 0; shard < numberOfShards; ++shard) {
+				// The first n % numberOfShards shards simulate one more run than the others
+				long runs = n / numberOfShards + (shard < n % numberOfShards ? 1 : 0);
+				Path shardFile = directory.resolve("shard-" + shard + ".bin");
+				shardFiles.add(shardFile);
+
+				List<String> command = new ArrayList<>();
+				command.add(java);
+				if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+					command.add("--add-modules");
+					command.add("jdk.incubator.vector");
+				}
+				command.add("-cp");
+				command.add(System.getProperty("java.class.path"));
+				command.add(ShardedSimulation.class.getName());
+				command.add(generatorName);
+				command.add(Long.toString(seed));
+				command.add(Integer.toString(numberOfShards));
+				command.add(Long.toString(n));
+				command.add(Integer.toString(shard));
+				command.add(Long.toString(runs));
+				command.add(shardFile.toString());
+				command.add(collectorClass);
+				command.add(Integer.toString(collectorArgs.length));
+				command.addAll(Arrays.asList(collectorArgs));
+				command.add(experimentClass);
+				command.addAll(Arrays.asList(experimentArgs));
+				processes.add(new ProcessBuilder(command).inheritIO().start());
+			}
+
+			for (int shard = 0; shard < numberOfShards; ++shard) {
+				int exitValue = processes.get(shard).waitFor();
+				if (exitValue != 0) {
+					throw new IllegalStateException("Shard " + shard + " failed with exit value " + exitValue + ".");
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the shards.", e);
+		} finally {
+			for (Process process : processes) {
+				process.destroy();
+			}
+		}
+		return shardFiles;
+	}
+
+	/**
+	 * Entry point of a shard process, started by {@link #launch}. Expects the generator name, the seed, the number
+	 * of shards, the total number of runs, the shard number, the number of runs of the shard, the shard file, the
+	 * class of the collector, the number and the arguments of its constructor, the class of the experiment and the
+	 * arguments of its constructor.
+	 *
+	 * @param args arguments of the shard
+	 * @throws IOException if the shard file cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+		int experimentIndex = args.length >= 9 ? 9 + Integer.parseInt(args[8]) : -1;
+		if (experimentIndex < 9 || args.length <= experimentIndex) {
+			throw new IllegalArgumentException("Usage: ShardedSimulation generator seed shards total shard runs file collector count [collector args...] experiment [args...]");
+		}
+		String generatorName = args[0];
+		long seed = Long.parseLong(args[1]);
+		int numberOfShards = Integer.parseInt(args[2]);
+		long n = Long.parseLong(args[3]);
+		int shard = Integer.parseInt(args[4]);
+		long runs = Long.parseLong(args[5]);
+		Path shardFile = Paths.get(args[6]);
+		String collectorClass = args[7];
+		String[] collectorArgs = Arrays.copyOfRange(args, 9, experimentIndex);
+		String experimentClass = args[experimentIndex];
+		String[] experimentArgs = Arrays.copyOfRange(args, experimentIndex + 1, args.length);
+		Experiment exp = Experiments.create(experimentClass, experimentArgs);
+		String launch = launchId(experimentClass, experimentArgs, collectorClass, collectorArgs, n, numberOfShards,
+				generatorName, seed);
+
+		StatCollector stat = createCollector(collectorClass, collectorArgs);
+		simulateShard(exp, runs, shard, generatorName, seed, stat);
+		StateFiles.writeAtomically(shardFile, out -> {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeUTF(launch);
+			out.writeUTF(collectorClass);
+			out.writeInt(collectorArgs.length);
+			for (String arg : collectorArgs) {
+				out.writeUTF(arg);
+			}
+			out.writeInt(numberOfShards);
+			out.writeInt(shard);
+			stat.writeTo(out);
+		});
+	}
+
+	/**
+	 * Returns the identifier of a launch, written to its shard files: shards with the same identifier come from
+	 * the same simulation and can be merged together.
+	 */
+	private static String launchId(String experimentClass,
+								   String[] experimentArgs,
+								   String collectorClass,
+								   String[] collectorArgs,
+								   long n,
+								   int numberOfShards,
+								   String generatorName,
+								   long seed) {
+		return experimentClass + Arrays.toString(experimentArgs) + " collected by " + collectorClass
+				+ Arrays.toString(collectorArgs) + ", " + n + " runs, " + numberOfShards + " shards, " + generatorName
+				+ " seed " + seed;
+	}
+
+	/**
+	 * Creates the collector of a shard.
+	 *
+	 * @throws IllegalArgumentException if the class is not a collector or has no matching constructor
+	 */
+	private static StatCollector createCollector(String collectorClass, String[] collectorArgs) {
+		return Experiments.create(StatCollector.class, "collector", collectorClass, collectorArgs);
+	}
+
+	/**
+	 * Simulates the runs of a shard in the current process, with its random source. Merging the collectors of all
+	 * the shards gives the same results as {@link #launch} followed by {@link #merge}.
+	 *
+	 * @param exp           experiment to be run each time
+	 * @param n             number of runs to be performed by the shard
+	 * @param shard         number of the shard, from 0
+	 * @param generatorName name of the algorithm of the master generator, which must be splittable
+	 * @param seed          seed of the master generator
+	 * @param stat          collector to be used to collect the results of each experiment
+	 */
+	public static void simulateShard(Experiment exp,
+									 long n,
+									 int shard,
+									 String generatorName,
+									 long seed,
+									 StatCollector stat) {
+		RandomGenerator.SplittableGenerator master = RandomGenerators.createSplittable(generatorName, seed);
+		for (int s = 0; s < shard; ++s) {
+			master.split();
+		}
+		MonteCarloSimulation.simulateNRuns(exp, n, master.split(), stat);
+	}
+
+	/**
+	 * Merges the collectors of the given shard files into stat, along a balanced tree (see
+	 * {@link StatCollector#mergeAll(List, java.util.function.Supplier)}).
+	 * <p>
+	 * Each shard file is read into a collector of the class of the shards, and the shard collectors are merged into
+	 * collectors created by {@link StatCollector#newCollector() stat.newCollector()}: stat decides what is kept
+	 * of the shards. For instance, the quantiles of quantile sketch shards are merged into a quantile sketch, but
+	 * only their moments into a StatCollector.
+	 * <p>
+	 * The shard files must come from the same launch and be of different shards. They need not include all the
+	 * shards of the launch, in which case stat only gets the runs of the given shards. Nothing is merged into
+	 * stat if a shard file is not valid.
+	 *
+	 * @param shardFiles shard files written by the shards
+	 * @param stat       collector into which the results of the shards are merged
+	 * @throws IOException              if a shard file cannot be read, comes from another launch than the first one
+	 *                                  or is of the same shard as another file
+	 * @throws IllegalArgumentException if the shard collectors cannot be merged into stat
+	 */
+	public static void merge(List<Path> shardFiles, StatCollector stat) throws IOException {
+		List<StatCollector> shardStats = new ArrayList<>(shardFiles.size());
+		String launch = null;
+		Set<Integer> shards = new HashSet<>();
+		for (Path shardFile : shardFiles) {
+			StatCollector shardStat;
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(shardFile)))) {
+				if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+					throw new IOException(shardFile + " is not a shard file.");
+				}
+				String shardLaunch = in.readUTF();
+				String collectorClass = in.readUTF();
+				int numberOfCollectorArgs = in.readInt();
+				if (numberOfCollectorArgs < 0) {
+					throw new IOException(shardFile + " is not a shard file.");
+				}
+				String[] collectorArgs = new String[numberOfCollectorArgs];
+				for (int i = 0; i < numberOfCollectorArgs; ++i) {
+					collectorArgs[i] = in.readUTF();
+				}
+				int numberOfShards = in.readInt();
+				int shard = in.readInt();
+				if (launch == null) {
+					launch = shardLaunch;
+				} else if (!launch.equals(shardLaunch)) {
+					throw new IOException(shardFile + " comes from another launch (" + shardLaunch + ") than "
+							+ shardFiles.get(0) + " (" + launch + ").");
+				}
+				if (shard < 0 || shard >= numberOfShards) {
+					throw new IOException(shardFile + " is not a shard file.");
+				}
+				if (!shards.add(shard)) {
+					throw new IOException(shardFile + " is shard " + shard + ", which was already merged.");
+				}
+				try {
+					shardStat = createCollector(collectorClass, collectorArgs);
+				} catch (IllegalArgumentException e) {
+					throw new IOException(shardFile + " has a collector which cannot be created.", e);
+				}
+				shardStat.readFrom(in);
+			}
+			shardStats.add(shardStat);
+		}
+		stat.merge(StatCollector.mergeAll(shardStats, stat::newCollector));
+	}
+}
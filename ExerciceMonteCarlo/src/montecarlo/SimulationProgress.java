@@ -0,0 +1,212 @@
+package montecarlo;
+
+import statistics.StatCollector;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Progress of a running simulation: number of runs, throughput, current C.I. half width and projections of the
+ * runs and time still needed to reach a target half width.
+ * <p>
+ * The simulation methods of {@link MonteCarloSimulation} taking a progress update it at the end of each batch of
+ * runs, not after each run. It can be polled from any thread, or listeners can be added to be notified of the
+ * updates, at most once per notification interval.
+ * <p>
+ * Projections rely on the relationship n_needed = n * (halfWidth / targetHalfWidth)^2 and on the throughput
+ * observed since the start of the simulation.
+ */
+public class SimulationProgress {
+
+	private final double level;              // confidence level of the C.I.
+	private final double targetHalfWidth;    // target half width of the C.I., NaN if none
+	private final long notificationInterval; // minimal time between two notifications of the listeners, in ns
+	private final List<Consumer<SimulationProgress>> listeners = new CopyOnWriteArrayList<>();
+	private volatile State state = new State(0L, 0L, Double.NaN, 0L);
+	private long startTime;                  // value of System.nanoTime() at the start of the simulation
+	private long lastNotification;           // value of System.nanoTime() at the last notification
+
+	/**
+	 * Immutable values of an update, so that they are always read consistently.
+	 */
+	private static final class State {
+		final long numberOfRuns;   // number of collected runs
+		final long newRuns;        // number of runs simulated since the start
+		final double halfWidth;    // current half width of the C.I.
+		final long elapsedTime;    // time elapsed since the start, in ns
+
+		State(long numberOfRuns, long newRuns, double halfWidth, long elapsedTime) {
+			this.numberOfRuns = numberOfRuns;
+			this.newRuns = newRuns;
+			this.halfWidth = halfWidth;
+			this.elapsedTime = elapsedTime;
+		}
+	}
+
+	/**
+	 * Creates a new progress for a simulation without target half width, notifying its listeners at most once
+	 * per second.
+	 *
+	 * @param level confidence level of the C.I.
+	 */
+	public SimulationProgress(double level) {
+		this(level, Double.NaN, Duration.ofSeconds(1));
+	}
+
+	/**
+	 * Creates a new progress for a simulation aiming at the given C.I. half width. For a simulation stopping on the
+	 * C.I. half width, level and targetHalfWidth should be those given to the simulation.
+	 *
+	 * @param level                confidence level of the C.I.
+	 * @param targetHalfWidth      target half width of the C.I., or Double.NaN if there is none
+	 * @param notificationInterval minimal time between two notifications of the listeners
+	 * @throws IllegalArgumentException if level is not between 0 and 1
+	 */
+	public SimulationProgress(double level, double targetHalfWidth, Duration notificationInterval) {
+		if (level < 0.0 || level > 1.0) {
+			throw new IllegalArgumentException("Confidence level should be between 0 and 1.");
+		}
+		this.level = level;
+		this.targetHalfWidth = targetHalfWidth;
+		this.notificationInterval = notificationInterval.toNanos();
+	}
+
+	/**
+	 * Adds a listener to be notified of the updates of this progress. Listeners are called by the thread running
+	 * the simulation and should therefore return quickly.
+	 *
+	 * @param listener listener to be notified
+	 */
+	public void addListener(Consumer<SimulationProgress> listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Removes a listener added with {@link #addListener}.
+	 *
+	 * @param listener listener not to be notified any more
+	 */
+	public void removeListener(Consumer<SimulationProgress> listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Returns the confidence level of the C.I.
+	 *
+	 * @return the confidence level
+	 */
+	public double getLevel() {
+		return level;
+	}
+
+	/**
+	 * Returns the target half width of the C.I.
+	 *
+	 * @return the target half width, or Double.NaN if there is none
+	 */
+	public double getTargetHalfWidth() {
+		return targetHalfWidth;
+	}
+
+	/**
+	 * Returns the number of runs collected so far, including those collected before the start of the simulation.
+	 *
+	 * @return the number of collected runs
+	 */
+	public long getNumberOfRuns() {
+		return state.numberOfRuns;
+	}
+
+	/**
+	 * Returns the time elapsed between the start of the simulation and the last update.
+	 *
+	 * @return the elapsed time
+	 */
+	public Duration getElapsedTime() {
+		return Duration.ofNanos(state.elapsedTime);
+	}
+
+	/**
+	 * Returns the number of runs simulated per second since the start of the simulation.
+	 * <p>
+	 * If no time has elapsed yet, Double.NaN is returned.
+	 *
+	 * @return the throughput in runs per second
+	 */
+	public double getRunsPerSecond() {
+		State s = state;
+		return s.elapsedTime == 0 ? Double.NaN : s.newRuns * 1e9 / s.elapsedTime;
+	}
+
+	/**
+	 * Returns the half width of the C.I. at the last update.
+	 *
+	 * @return the current half width, or Double.NaN if it is not known yet
+	 */
+	public double getCurrentHalfWidth() {
+		return state.halfWidth;
+	}
+
+	/**
+	 * Returns the projected number of runs still needed to reach the target half width.
+	 * <p>
+	 * If there is no target or the current half width is not known yet, Double.NaN is returned.
+	 *
+	 * @return the projected number of remaining runs
+	 */
+	public double getProjectedRemainingRuns() {
+		State s = state;
+		double totalRuns = s.numberOfRuns * Math.pow(s.halfWidth / targetHalfWidth, 2);
+		return Math.max(0.0, totalRuns - s.numberOfRuns);
+	}
+
+	/**
+	 * Returns the projected time still needed to reach the target half width, at the current throughput.
+	 * <p>
+	 * If it cannot be projected yet, null is returned.
+	 *
+	 * @return the projected remaining time
+	 */
+	public Duration getProjectedRemainingTime() {
+		double seconds = getProjectedRemainingRuns() / getRunsPerSecond();
+		if (Double.isNaN(seconds) || Double.isInfinite(seconds)) {
+			return null;
+		}
+		return Duration.ofNanos((long) (seconds * 1e9));
+	}
+
+	/**
+	 * Marks the start of a simulation collecting its results in stat.
+	 *
+	 * @param stat collector of the simulation, possibly already containing observations
+	 */
+	void start(StatCollector stat) {
+		startTime = System.nanoTime();
+		lastNotification = startTime;
+		state = new State(stat.getNumberOfObs(), 0L, stat.getConfidenceIntervalHalfWidth(level), 0L);
+	}
+
+	/**
+	 * Records the state of the simulation at the end of a batch and notifies the listeners if the last
+	 * notification is old enough.
+	 *
+	 * @param stat  collector of the simulation
+	 * @param force whether the listeners should be notified in any case, at the end of the simulation
+	 */
+	void update(StatCollector stat, boolean force) {
+		long now = System.nanoTime();
+		long numberOfRuns = stat.getNumberOfObs();
+		State previous = state;
+		state = new State(numberOfRuns, previous.newRuns + numberOfRuns - previous.numberOfRuns,
+				stat.getConfidenceIntervalHalfWidth(level), now - startTime);
+
+		if (force || now - lastNotification >= notificationInterval) {
+			lastNotification = now;
+			for (Consumer<SimulationProgress> listener : listeners) {
+				listener.accept(this);
+			}
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package montecarlo;
+
+import java.time.Duration;
+
+/**
+ * Summary of a time-budgeted simulation, see {@link MonteCarloSimulation#simulateForDuration}: number of runs
+ * collected, C.I. half width achieved, time spent and whether the simulation stopped on its target half width
+ * rather than on its deadline.
+ */
+public final class SimulationResult {
+
+	private final long numberOfRuns;   // number of runs collected by the simulation
+	private final double halfWidth;    // half width of the C.I. at the end of the simulation
+	private final long elapsedTime;    // time spent by the simulation, in ns
+	private final boolean targetReached;
+
+	SimulationResult(long numberOfRuns, double halfWidth, long elapsedTime, boolean targetReached) {
+		this.numberOfRuns = numberOfRuns;
+		this.halfWidth = halfWidth;
+		this.elapsedTime = elapsedTime;
+		this.targetReached = targetReached;
+	}
+
+	/**
+	 * Returns the number of runs collected by the simulation. Runs simulated after the simulation stopped are
+	 * discarded and not counted.
+	 *
+	 * @return the number of collected runs
+	 */
+	public long getNumberOfRuns() {
+		return numberOfRuns;
+	}
+
+	/**
+	 * Returns the half width of the C.I. at the end of the simulation.
+	 *
+	 * @return the achieved half width of the C.I.
+	 */
+	public double getHalfWidth() {
+		return halfWidth;
+	}
+
+	/**
+	 * Returns the wall-clock time spent by the simulation.
+	 *
+	 * @return the elapsed time
+	 */
+	public Duration getElapsedTime() {
+		return Duration.ofNanos(elapsedTime);
+	}
+
+	/**
+	 * Returns the number of collected runs per second of elapsed time.
+	 *
+	 * @return the throughput of the simulation
+	 */
+	public double getRunsPerSecond() {
+		return elapsedTime == 0 ? Double.NaN : numberOfRuns * 1e9 / elapsedTime;
+	}
+
+	/**
+	 * Returns whether the simulation stopped because the C.I. was narrow enough, before its deadline.
+	 *
+	 * @return true if the target half width was reached, false if the deadline was reached first
+	 */
+	public boolean isTargetReached() {
+		return targetReached;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d runs, half width %g, %.3f s, %.0f runs/s%s", numberOfRuns, halfWidth,
+				elapsedTime / 1e9, getRunsPerSecond(), targetReached ? "" : " (deadline reached)");
+	}
+}
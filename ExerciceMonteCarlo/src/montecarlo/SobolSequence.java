@@ -0,0 +1,124 @@
+package montecarlo;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Sobol sequence in base 2 with 32-bit precision, using the direction numbers of Joe and Kuo for up to
+ * {@link #MAX_DIMENSION} coordinates.
+ * <p>
+ * It is randomized by a random digital shift, that is a XOR of the bits of each coordinate with random bits,
+ * which keeps the net structure of the points.
+ */
+public class SobolSequence implements QuasiRandomSequence {
+
+	/**
+	 * Maximal dimension of the sequence.
+	 */
+	public static final int MAX_DIMENSION = 16;
+
+	// Number of bits of each coordinate, the sequence has at most 2^BITS points
+	private static final int BITS = 32;
+
+	// Degree s, coefficients a and initial direction numbers m of the primitive polynomials of the coordinates
+	// 2 to MAX_DIMENSION (new-joe-kuo-6.21201)
+	private static final int[][] POLYNOMIALS = {
+			{1, 0, 1},
+			{2, 1, 1, 3},
+			{3, 1, 1, 3, 1},
+			{3, 2, 1, 1, 1},
+			{4, 1, 1, 1, 3, 3},
+			{4, 4, 1, 3, 5, 13},
+			{5, 2, 1, 1, 5, 5, 17},
+			{5, 4, 1, 1, 5, 5, 5},
+			{5, 7, 1, 1, 7, 11, 19},
+			{5, 11, 1, 1, 5, 1, 1},
+			{5, 13, 1, 1, 1, 3, 11},
+			{5, 14, 1, 3, 5, 5, 31},
+			{6, 1, 1, 3, 3, 9, 7, 49},
+			{6, 13, 1, 1, 1, 15, 21, 21},
+			{6, 16, 1, 3, 1, 13, 27, 49}};
+
+	private final int[][] directions;  // direction numbers of each coordinate, for each bit of the index
+	private final int[] shift;         // random digital shift of each coordinate, zero if not randomized
+
+	/**
+	 * Creates a new (not randomized) Sobol sequence of the given dimension.
+	 *
+	 * @param dimension dimension of the points of the sequence
+	 * @throws IllegalArgumentException if dimension is not between 1 and {@link #MAX_DIMENSION}
+	 */
+	public SobolSequence(int dimension) {
+		if (dimension <= 0 || dimension > MAX_DIMENSION) {
+			throw new IllegalArgumentException("Dimension should be between 1 and " + MAX_DIMENSION + ".");
+		}
+
+		directions = new int[dimension][BITS];
+		// First coordinate is the van der Corput sequence in base 2
+		for (int k = 0; k < BITS; ++k) {
+			directions[0][k] = 1 << (BITS - 1 - k);
+		}
+		for (int i = 1; i < dimension; ++i) {
+			int[] polynomial = POLYNOMIALS[i - 1];
+			int s = polynomial[0];
+			int a = polynomial[1];
+			int[] v = directions[i];
+			for (int k = 0; k < s; ++k) {
+				v[k] = polynomial[2 + k] << (BITS - 1 - k);
+			}
+			for (int k = s; k < BITS; ++k) {
+				v[k] = v[k - s] ^ (v[k - s] >>> s);
+				for (int l = 1; l < s; ++l) {
+					if (((a >>> (s - 1 - l)) & 1) != 0) {
+						v[k] ^= v[k - l];
+					}
+				}
+			}
+		}
+		shift = new int[dimension];
+	}
+
+	private SobolSequence(int[][] directions, int[] shift) {
+		this.directions = directions;
+		this.shift = shift;
+	}
+
+	@Override
+	public int getDimension() {
+		return directions.length;
+	}
+
+	/**
+	 * Computes the point of the sequence with the given index.
+	 *
+	 * @param index index of the point, starting from 0
+	 * @param u     array of length at least d receiving the coordinates of the point
+	 * @throws IllegalArgumentException if index is negative or not less than 2^32
+	 */
+	@Override
+	public void getPoint(long index, double[] u) {
+		if (index < 0 || index >>> BITS != 0) {
+			throw new IllegalArgumentException("Index of a Sobol point should be between 0 and 2^32 - 1.");
+		}
+
+		for (int i = 0; i < directions.length; ++i) {
+			int[] v = directions[i];
+			int x = shift[i];
+			int k = 0;
+			for (long bits = index; bits != 0; bits >>>= 1, ++k) {
+				if ((bits & 1) != 0) {
+					x ^= v[k];
+				}
+			}
+			u[i] = Integer.toUnsignedLong(x) * 0x1.0p-32;
+		}
+	}
+
+	@Override
+	public SobolSequence randomize(RandomGenerator rnd) {
+		int[] randomShift = new int[directions.length];
+		for (int i = 0; i < randomShift.length; ++i) {
+			randomShift[i] = rnd.nextInt();
+		}
+		return new SobolSequence(directions, randomShift);
+	}
+}
@@ -0,0 +1,52 @@
+package montecarlo;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Utility class to write the state files of simulations, such as checkpoints and partial results, so that they
+ * are always complete.
+ */
+final class StateFiles {
+
+	/**
+	 * Writes data to a {@link DataOutput}.
+	 */
+	interface Writer {
+		void write(DataOutput out) throws IOException;
+	}
+
+	/**
+	 * Private constructor. Makes it impossible to instantiate.
+	 */
+	private StateFiles() {
+	}
+
+	/**
+	 * Writes the data of writer to a temporary file, forces it to the storage device and atomically replaces file
+	 * by it, so that file never contains partially written data.
+	 *
+	 * @param file   file to be written
+	 * @param writer writes the content of the file
+	 * @throws IOException if the file cannot be written
+	 */
+	static void writeAtomically(Path file, Writer writer) throws IOException {
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+			writer.write(out);
+			out.flush();
+			channel.force(true);
+		}
+		Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+	}
+}
@@ -0,0 +1,274 @@
+package montecarlo;
+
+import statistics.StatCollector;
+import statistics.StratifiedStatCollector;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * This class provides stratified and Latin hypercube sampling for experiments over the unit hypercube.
+ * <p>
+ * With stratified sampling, each dimension of [0, 1)^d is split into m intervals of equal length, giving m^d
+ * strata of equal probability, and each stratum is sampled uniformly and separately. With Latin hypercube
+ * sampling, a design of N points is drawn such that each of the N intervals of each dimension contains exactly
+ * one point, and independent designs are simulated to build the C.I.
+ */
+public class StratifiedSampling {
+
+	/**
+	 * Ways of allocating the runs of a stratified simulation to the strata.
+	 */
+	public enum Allocation {
+		/**
+		 * Runs are allocated proportionally to the probabilities of the strata.
+		 */
+		PROPORTIONAL,
+		/**
+		 * Runs are allocated proportionally to the probabilities of the strata times their standard deviations,
+		 * as estimated from the runs already collected (Neyman allocation). Proportional allocation is used as
+		 * long as a stratum has less than two observations.
+		 * <p>
+		 * A tenth of the runs is still allocated proportionally, so that strata whose first runs happened to
+		 * give the same result keep being sampled: otherwise their estimated standard deviation would stay 0,
+		 * biasing the estimate and narrowing the C.I.
+		 */
+		NEYMAN
+	}
+
+	// Maximal number of runs simulated in a stratum before their results are added to the collector
+	private static final int BATCH_SIZE = 4096;
+
+	// Part of the runs allocated proportionally with Neyman allocation
+	private static final double PROPORTIONAL_PART = 0.1;
+
+	/**
+	 * Private constructor. Makes it impossible to instantiate.
+	 */
+	private StratifiedSampling() {
+	}
+
+	/**
+	 * Returns the number of strata obtained by splitting each dimension of the unit hypercube of experiment exp
+	 * into m intervals, that is the number of strata of the collectors to be used with this experiment.
+	 *
+	 * @param exp experiment to be stratified
+	 * @param m   number of intervals per dimension
+	 * @return the number of strata, m^d
+	 * @throws IllegalArgumentException if m is not positive or if there are more than Integer.MAX_VALUE strata
+	 */
+	public static int getNumberOfStrata(UnitCubeExperiment exp, int m) {
+		if (m <= 0) {
+			throw new IllegalArgumentException("Number of intervals per dimension should be positive.");
+		}
+		int numberOfStrata = 1;
+		for (int i = 0; i < exp.getDimension(); ++i) {
+			try {
+				numberOfStrata = Math.multiplyExact(numberOfStrata, m);
+			} catch (ArithmeticException e) {
+				throw new IllegalArgumentException("Too many strata.", e);
+			}
+		}
+		return numberOfStrata;
+	}
+
+	/**
+	 * Simulates experiment exp n times with stratified sampling, using rnd as a source of pseudo-random numbers,
+	 * and collects the results in stat.
+	 *
+	 * @param exp        experiment to be run each time
+	 * @param m          number of intervals per dimension
+	 * @param allocation way of allocating the n runs to the strata
+	 * @param n          number of runs to be performed
+	 * @param rnd        random source to be used to simulate the experiment
+	 * @param stat       collector with {@link #getNumberOfStrata} strata to be used to collect the results
+	 * @throws IllegalArgumentException if stat does not have the right number of strata
+	 */
+	public static void simulateNRuns(UnitCubeExperiment exp,
+									 int m,
+									 Allocation allocation,
+									 long n,
+									 RandomGenerator rnd,
+									 StratifiedStatCollector stat) {
+		int numberOfStrata = getNumberOfStrata(exp, m);
+		if (stat.getNumberOfStrata() != numberOfStrata) {
+			throw new IllegalArgumentException("Collector should have " + numberOfStrata + " strata.");
+		}
+
+		double[] shares = getShares(allocation, stat);
+		int[] cell = new int[exp.getDimension()];
+		double[] u = new double[exp.getDimension()];
+		double[] results = new double[(int) Math.max(0, Math.min(BATCH_SIZE, n))];
+
+		// Runs of stratum h are the difference of the rounded cumulated shares, so that they add up to n. Rounding to the
+		// nearest integer keeps the rounding errors of the cumulated shares from moving runs from one stratum to the next
+		double cumulatedShare = 0.0;
+		long allocated = 0;
+		for (int h = 0; h < numberOfStrata; ++h) {
+			cumulatedShare += shares[h];
+			long total = h == numberOfStrata - 1 ? n : Math.min(n, Math.round(n * cumulatedShare));
+			long runs = total - allocated;
+			allocated = total;
+
+			// Coordinates of the cell of stratum h in base m
+			for (int i = 0, index = h; i < cell.length; ++i, index /= m) {
+				cell[i] = index % m;
+			}
+			for (long run = 0; run < runs; run += results.length) {
+				int len = (int) Math.min(results.length, runs - run);
+				for (int k = 0; k < len; ++k) {
+					for (int i = 0; i < u.length; ++i) {
+						u[i] = (cell[i] + rnd.nextDouble()) / m;
+					}
+					results[k] = exp.execute(u);
+				}
+				stat.addAll(h, results, len);
+			}
+		}
+	}
+
+	/**
+	 * Same as {@link MonteCarloSimulation#simulateTillGivenCIHalfWidth(Experiment, double, double, long, long,
+	 * RandomGenerator, StatCollector)}, with stratified sampling.
+	 * <p>
+	 * With Neyman allocation, the initial runs are allocated proportionally and act as a pilot phase estimating
+	 * the standard deviations of the strata. They should thus give at least two runs to each stratum.
+	 *
+	 * @param exp                    experiment to be run each time
+	 * @param m                      number of intervals per dimension
+	 * @param allocation             way of allocating the additional runs to the strata
+	 * @param level                  confidence level of the confidence interval
+	 * @param maxHalfWidth           maximal half width of the confidence interval
+	 * @param initialNumberOfRuns    initial number of runs to be performed
+	 * @param additionalNumberOfRuns additional number of runs to be performed if C.I. is too wide
+	 * @param rnd                    random source to be used to simulate the experiment
+	 * @param stat                   collector with {@link #getNumberOfStrata} strata to be used to collect the results
+	 * @throws IllegalArgumentException if stat does not have the right number of strata
+	 */
+	public static void simulateTillGivenCIHalfWidth(UnitCubeExperiment exp,
+													int m,
+													Allocation allocation,
+													double level,
+													double maxHalfWidth,
+													long initialNumberOfRuns,
+													long additionalNumberOfRuns,
+													RandomGenerator rnd,
+													StratifiedStatCollector stat) {
+		MonteCarloSimulation.simulateTillGivenCIHalfWidth(n -> simulateNRuns(exp, m, allocation, n, rnd, stat),
+				() -> stat.getConfidenceIntervalHalfWidth(level) / maxHalfWidth, initialNumberOfRuns,
+				additionalNumberOfRuns);
+	}
+
+	/**
+	 * Simulates numberOfDesigns independent Latin hypercube designs of pointsPerDesign points each, using rnd as a
+	 * source of pseudo-random numbers, and collects the average result of each design in stat.
+	 *
+	 * @param exp             experiment to be run at each point
+	 * @param pointsPerDesign number of points of each design
+	 * @param numberOfDesigns number of designs to be simulated
+	 * @param rnd             random source to be used to simulate the experiment
+	 * @param stat            collector to be used to collect the average result of each design
+	 * @throws IllegalArgumentException if pointsPerDesign is not positive
+	 */
+	public static void simulateLatinHypercube(UnitCubeExperiment exp,
+											  int pointsPerDesign,
+											  long numberOfDesigns,
+											  RandomGenerator rnd,
+											  StatCollector stat) {
+		if (pointsPerDesign <= 0) {
+			throw new IllegalArgumentException("Number of points per design should be positive.");
+		}
+
+		int d = exp.getDimension();
+		int[][] permutations = new int[d][pointsPerDesign];
+		for (int[] permutation : permutations) {
+			for (int k = 0; k < pointsPerDesign; ++k) {
+				permutation[k] = k;
+			}
+		}
+		double[] u = new double[d];
+
+		for (long design = 0; design < numberOfDesigns; ++design) {
+			// Fisher-Yates shuffle of the intervals of each dimension
+			for (int[] permutation : permutations) {
+				for (int k = pointsPerDesign - 1; k > 0; --k) {
+					int j = rnd.nextInt(k + 1);
+					int tmp = permutation[k];
+					permutation[k] = permutation[j];
+					permutation[j] = tmp;
+				}
+			}
+
+			double sum = 0.0;
+			for (int k = 0; k < pointsPerDesign; ++k) {
+				for (int i = 0; i < d; ++i) {
+					u[i] = (permutations[i][k] + rnd.nextDouble()) / pointsPerDesign;
+				}
+				sum += exp.execute(u);
+			}
+			stat.add(sum / pointsPerDesign);
+		}
+	}
+
+	/**
+	 * Same as {@link MonteCarloSimulation#simulateTillGivenCIHalfWidth(Experiment, double, double, long, long,
+	 * RandomGenerator, StatCollector)}, with independent Latin hypercube designs of pointsPerDesign points as runs.
+	 *
+	 * @param exp                       experiment to be run at each point
+	 * @param pointsPerDesign           number of points of each design
+	 * @param level                     confidence level of the confidence interval
+	 * @param maxHalfWidth              maximal half width of the confidence interval
+	 * @param initialNumberOfDesigns    initial number of designs to be simulated
+	 * @param additionalNumberOfDesigns additional number of designs to be simulated if C.I. is too wide
+	 * @param rnd                       random source to be used to simulate the experiment
+	 * @param stat                      collector to be used to collect the average result of each design
+	 * @throws IllegalArgumentException if pointsPerDesign is not positive
+	 */
+	public static void simulateTillGivenCIHalfWidthLatinHypercube(UnitCubeExperiment exp,
+																  int pointsPerDesign,
+																  double level,
+																  double maxHalfWidth,
+																  long initialNumberOfDesigns,
+																  long additionalNumberOfDesigns,
+																  RandomGenerator rnd,
+																  StatCollector stat) {
+		MonteCarloSimulation.simulateTillGivenCIHalfWidth(n -> simulateLatinHypercube(exp, pointsPerDesign, n, rnd, stat),
+				level, maxHalfWidth, initialNumberOfDesigns, additionalNumberOfDesigns, stat);
+	}
+
+	/**
+	 * Returns the share of the runs to be allocated to each stratum.
+	 */
+	private static double[] getShares(Allocation allocation, StratifiedStatCollector stat) {
+		int numberOfStrata = stat.getNumberOfStrata();
+		double[] shares = new double[numberOfStrata];
+		double sum = 0.0;
+		if (allocation == Allocation.NEYMAN) {
+			for (int h = 0; h < numberOfStrata; ++h) {
+				double sd = stat.getStandardDeviation(h);
+				if (Double.isNaN(sd)) {
+					sum = 0.0;
+					break;
+				}
+				shares[h] = stat.getWeight(h) * sd;
+				sum += shares[h];
+			}
+		}
+		// Proportional allocation, also used when the standard deviations are unknown or all zero
+		if (sum == 0.0) {
+			for (int h = 0; h < numberOfStrata; ++h) {
+				shares[h] = stat.getWeight(h);
+				sum += shares[h];
+			}
+		}
+
+		for (int h = 0; h < numberOfStrata; ++h) {
+			shares[h] /= sum;
+		}
+		if (allocation == Allocation.NEYMAN) {
+			for (int h = 0; h < numberOfStrata; ++h) {
+				shares[h] = (1.0 - PROPORTIONAL_PART) * shares[h] + PROPORTIONAL_PART * stat.getWeight(h);
+			}
+		}
+		return shares;
+	}
+}
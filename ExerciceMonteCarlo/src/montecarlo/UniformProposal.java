@@ -0,0 +1,37 @@
+package montecarlo;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Uniform distribution over an interval [a, b).
+ */
+public class UniformProposal implements ProposalDistribution {
+
+	private final double a;  // lower bound of the interval
+	private final double b;  // upper bound of the interval
+
+	/**
+	 * Creates a new uniform distribution over [a, b).
+	 *
+	 * @param a lower bound of the interval
+	 * @param b upper bound of the interval
+	 * @throws IllegalArgumentException if a is not less than b
+	 */
+	public UniformProposal(double a, double b) {
+		if (!(a < b)) {
+			throw new IllegalArgumentException("Lower bound should be less than upper bound.");
+		}
+		this.a = a;
+		this.b = b;
+	}
+
+	@Override
+	public double sample(RandomGenerator rnd) {
+		return a + (b - a) * rnd.nextDouble();
+	}
+
+	@Override
+	public double density(double x) {
+		return x >= a && x <= b ? 1.0 / (b - a) : 0.0;
+	}
+}
@@ -0,0 +1,42 @@
+package montecarlo;
+
+import java.util.Random;
+import java.util.random.RandomGenerator;
+
+/**
+ * Experiments whose runs are a deterministic function of a point of the unit hypercube [0, 1)^d should implement
+ * this interface, so that they can be simulated with the sampling schemes of {@link StratifiedSampling}.
+ * <p>
+ * By default, simulating the experiment with a random source evaluates it at a point drawn uniformly.
+ */
+public interface UnitCubeExperiment extends Experiment {
+
+	/**
+	 * Returns the dimension d of the unit hypercube over which the experiment is defined.
+	 *
+	 * @return the dimension of the experiment
+	 */
+	int getDimension();
+
+	/**
+	 * Simulates the experiment once at the given point of the unit hypercube.
+	 *
+	 * @param u point of [0, 1)^d at which the experiment is simulated, of length at least d
+	 * @return realization of the performance measure for the experiment (of type double)
+	 */
+	double execute(double[] u);
+
+	@Override
+	default double execute(Random rnd) {
+		return execute((RandomGenerator) rnd);
+	}
+
+	@Override
+	default double execute(RandomGenerator rnd) {
+		double[] u = new double[getDimension()];
+		for (int i = 0; i < u.length; ++i) {
+			u[i] = rnd.nextDouble();
+		}
+		return execute(u);
+	}
+}
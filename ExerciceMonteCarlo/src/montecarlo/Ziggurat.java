@@ -0,0 +1,163 @@
+package montecarlo;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Utility class to draw standard normal and exponential variates from any {@link RandomGenerator} with the
+ * Ziggurat method of Marsaglia and Tsang, in the double precision formulation of Doornik.
+ * <p>
+ * The area under the density is covered by layers of equal area: a rectangle per layer and a base layer made of a
+ * rectangle and the tail. A single nextLong() gives both the layer and the position in it, and the point is
+ * accepted right away when it falls inside the part of the rectangle lying under the density, which happens for
+ * about 99% of the draws. Otherwise, the wedge between the rectangle and the density or the tail are sampled
+ * exactly, so the variates follow the exact distributions.
+ * <p>
+ * Unlike Random.nextGaussian(), the samplers have no state of their own and can be used concurrently with
+ * different generators.
+ */
+public final class Ziggurat {
+	// Normal distribution: 128 layers, start of the tail and area of each layer
+	private static final int NORMAL_LAYERS = 128;
+	private static final double NORMAL_R = 3.442619855899;
+	private static final double NORMAL_V = 9.91256303526217e-3;
+	private static final double[] NORMAL_X = new double[NORMAL_LAYERS + 1];  // right edges of the layers
+	private static final double[] NORMAL_RATIO = new double[NORMAL_LAYERS];  // NORMAL_X[i+1] / NORMAL_X[i]
+
+	// Exponential distribution: 256 layers, start of the tail and area of each layer
+	private static final int EXPONENTIAL_LAYERS = 256;
+	private static final double EXPONENTIAL_R = 7.69711747013104972;
+	private static final double EXPONENTIAL_V = 3.949659822581572e-3;
+	private static final double[] EXPONENTIAL_X = new double[EXPONENTIAL_LAYERS + 1];
+	private static final double[] EXPONENTIAL_RATIO = new double[EXPONENTIAL_LAYERS];
+
+	static {
+		// Right edge of each layer, such that all the layers have area V
+		double f = Math.exp(-0.5 * NORMAL_R * NORMAL_R);
+		NORMAL_X[0] = NORMAL_V / f;
+		NORMAL_X[1] = NORMAL_R;
+		for (int i = 2; i < NORMAL_LAYERS; ++i) {
+			NORMAL_X[i] = Math.sqrt(-2.0 * Math.log(NORMAL_V / NORMAL_X[i - 1] + f));
+			f = Math.exp(-0.5 * NORMAL_X[i] * NORMAL_X[i]);
+		}
+		NORMAL_X[NORMAL_LAYERS] = 0.0;
+		for (int i = 0; i < NORMAL_LAYERS; ++i) {
+			NORMAL_RATIO[i] = NORMAL_X[i + 1] / NORMAL_X[i];
+		}
+
+		f = Math.exp(-EXPONENTIAL_R);
+		EXPONENTIAL_X[0] = EXPONENTIAL_V / f;
+		EXPONENTIAL_X[1] = EXPONENTIAL_R;
+		for (int i = 2; i < EXPONENTIAL_LAYERS; ++i) {
+			EXPONENTIAL_X[i] = -Math.log(EXPONENTIAL_V / EXPONENTIAL_X[i - 1] + f);
+			f = Math.exp(-EXPONENTIAL_X[i]);
+		}
+		EXPONENTIAL_X[EXPONENTIAL_LAYERS] = 0.0;
+		for (int i = 0; i < EXPONENTIAL_LAYERS; ++i) {
+			EXPONENTIAL_RATIO[i] = EXPONENTIAL_X[i + 1] / EXPONENTIAL_X[i];
+		}
+	}
+
+	/**
+	 * Private constructor. Makes it impossible to instantiate.
+	 */
+	private Ziggurat() {
+	}
+
+	/**
+	 * Draws a variate of the standard normal distribution.
+	 *
+	 * @param rnd random source to be used
+	 * @return a standard normal variate
+	 */
+	public static double nextGaussian(RandomGenerator rnd) {
+		while (true) {
+			// Lowest 7 bits select the layer, highest 53 bits give a uniform of [-1, 1)
+			long bits = rnd.nextLong();
+			int i = (int) bits & (NORMAL_LAYERS - 1);
+			double u = 2.0 * ((bits >>> 11) * 0x1.0p-53) - 1.0;
+
+			if (Math.abs(u) < NORMAL_RATIO[i]) {
+				return u * NORMAL_X[i];
+			}
+			if (i == 0) {
+				return normalTail(rnd, u < 0);
+			}
+			// Wedge: accept if the point lies under the density, with densities relative to the one at x
+			double x = u * NORMAL_X[i];
+			double f0 = Math.exp(-0.5 * (NORMAL_X[i] * NORMAL_X[i] - x * x));
+			double f1 = Math.exp(-0.5 * (NORMAL_X[i + 1] * NORMAL_X[i + 1] - x * x));
+			if (f1 + rnd.nextDouble() * (f0 - f1) < 1.0) {
+				return x;
+			}
+		}
+	}
+
+	/**
+	 * Draws a variate of the tail of the standard normal distribution beyond R, with Marsaglia's method.
+	 */
+	private static double normalTail(RandomGenerator rnd, boolean negative) {
+		double x;
+		double y;
+		do {
+			// 1 - nextDouble() is in (0, 1], so that the logarithms are finite
+			x = Math.log(1.0 - rnd.nextDouble()) / NORMAL_R;
+			y = Math.log(1.0 - rnd.nextDouble());
+		} while (-2.0 * y < x * x);
+		return negative ? x - NORMAL_R : NORMAL_R - x;
+	}
+
+	/**
+	 * Draws a variate of the exponential distribution of mean 1.
+	 *
+	 * @param rnd random source to be used
+	 * @return an exponential variate
+	 */
+	public static double nextExponential(RandomGenerator rnd) {
+		while (true) {
+			// Lowest 8 bits select the layer, highest 53 bits give a uniform of [0, 1)
+			long bits = rnd.nextLong();
+			int i = (int) bits & (EXPONENTIAL_LAYERS - 1);
+			double u = (bits >>> 11) * 0x1.0p-53;
+
+			if (u < EXPONENTIAL_RATIO[i]) {
+				return u * EXPONENTIAL_X[i];
+			}
+			if (i == 0) {
+				// The exponential distribution is memoryless: its tail beyond R is R plus an exponential
+				return EXPONENTIAL_R - Math.log(1.0 - rnd.nextDouble());
+			}
+			double x = u * EXPONENTIAL_X[i];
+			double f0 = Math.exp(-(EXPONENTIAL_X[i] - x));
+			double f1 = Math.exp(-(EXPONENTIAL_X[i + 1] - x));
+			if (f1 + rnd.nextDouble() * (f0 - f1) < 1.0) {
+				return x;
+			}
+		}
+	}
+
+	/**
+	 * Draws len standard normal variates into the first len elements of out.
+	 *
+	 * @param rnd random source to be used
+	 * @param out array receiving the variates
+	 * @param len number of variates to be drawn
+	 */
+	public static void fillGaussian(RandomGenerator rnd, double[] out, int len) {
+		for (int i = 0; i < len; ++i) {
+			out[i] = nextGaussian(rnd);
+		}
+	}
+
+	/**
+	 * Draws len exponential variates of mean 1 into the first len elements of out.
+	 *
+	 * @param rnd random source to be used
+	 * @param out array receiving the variates
+	 * @param len number of variates to be drawn
+	 */
+	public static void fillExponential(RandomGenerator rnd, double[] out, int len) {
+		for (int i = 0; i < len; ++i) {
+			out[i] = nextExponential(rnd);
+		}
+	}
+}
@@ -0,0 +1,387 @@
+package statistics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * This class provides a collector for observations taking only two values, 0 for a failure and a given success
+ * value, such as the results of experiments estimating a probability. It only counts the trials and the successes,
+ * which is cheaper than updating the mean and the sum of squared deviations at each observation.
+ * <p>
+ * The C.I. is computed on the probability of success with the Wilson score interval or the exact Clopper-Pearson
+ * interval, and scaled by the success value. Unlike the normal interval of {@link StatCollector}, both remain valid
+ * when the probability of success is close to 0 or 1. The collector can be used wherever a {@link StatCollector}
+ * is expected, for instance with the stopping rules of the simulations, including the parallel ones, and can be
+ * merged into other collectors.
+ */
+public class BernoulliCollector extends StatCollector {
+	private static final int MAX_ITERATIONS = 1_000_000;  // maximal number of terms of the continued fraction
+
+	/**
+	 * Confidence intervals available for the probability of success.
+	 */
+	public enum Interval {
+		/**
+		 * Wilson score interval, obtained by inverting the normal approximation of the binomial distribution.
+		 */
+		WILSON,
+		/**
+		 * Clopper-Pearson interval, obtained by inverting the binomial distribution itself. It is conservative: its
+		 * actual confidence level is at least the requested one.
+		 */
+		CLOPPER_PEARSON
+	}
+
+	private final double successValue;  // value of the observations counted as successes
+	private final Interval interval;    // confidence interval computed by this collector
+	private long numberOfTrials;        // number of collected observations
+	private long numberOfSuccesses;     // number of collected observations equal to the success value
+
+	/**
+	 * Creates a new collector for observations equal to 0 or successValue, computing Wilson intervals, and
+	 * initializes it.
+	 *
+	 * @param successValue value of the observations counted as successes
+	 * @throws IllegalArgumentException if successValue is 0
+	 */
+	public BernoulliCollector(double successValue) {
+		this(successValue, Interval.WILSON);
+	}
+
+	/**
+	 * Creates a new collector for observations equal to 0 or successValue, computing the given kind of intervals,
+	 * and initializes it.
+	 *
+	 * @param successValue value of the observations counted as successes
+	 * @param interval     confidence interval to be computed
+	 * @throws IllegalArgumentException if successValue is 0
+	 */
+	public BernoulliCollector(double successValue, Interval interval) {
+		if (successValue == 0.0 || Double.isNaN(successValue)) {
+			throw new IllegalArgumentException("Success value should be different from 0.");
+		}
+		this.successValue = successValue;
+		this.interval = interval;
+	}
+
+	/**
+	 * Initializes the collector
+	 */
+	@Override
+	public void init() {
+		super.init();
+		numberOfTrials = 0L;
+		numberOfSuccesses = 0L;
+	}
+
+	/**
+	 * Adds a new observation to this collector.
+	 *
+	 * @param x observation to be added to this collector, either 0 or the success value
+	 * @throws IllegalArgumentException if x is neither 0 nor the success value
+	 */
+	@Override
+	public void add(double x) {
+		if (x == successValue) {
+			numberOfSuccesses++;
+		} else if (x != 0.0) {
+			throw new IllegalArgumentException("Observations should be 0 or " + successValue + ".");
+		}
+		numberOfTrials++;
+	}
+
+	/**
+	 * Adds the first len elements of values as new observations to this collector.
+	 *
+	 * @param values array containing the observations to be added to this collector, each either 0 or the
+	 *               success value
+	 * @param len    number of observations to be added
+	 * @throws IllegalArgumentException if an observation is neither 0 nor the success value
+	 */
+	@Override
+	public void addAll(double[] values, int len) {
+		long successes = 0;
+		for (int i = 0; i < len; ++i) {
+			if (values[i] == successValue) {
+				successes++;
+			} else if (values[i] != 0.0) {
+				throw new IllegalArgumentException("Observations should be 0 or " + successValue + ".");
+			}
+		}
+		numberOfSuccesses += successes;
+		numberOfTrials += Math.max(0, len);
+	}
+
+	/**
+	 * Adds all the observations collected by another Bernoulli collector to this collector. Empty collectors of
+	 * any kind are also accepted.
+	 *
+	 * @param other collector whose observations are to be added to this collector
+	 * @throws IllegalArgumentException if other is neither empty nor a Bernoulli collector with the same success
+	 *                                  value
+	 */
+	@Override
+	public void merge(StatCollector other) {
+		if (!(other instanceof BernoulliCollector) || ((BernoulliCollector) other).successValue != successValue) {
+			if (other.getNumberOfObs() == 0) {
+				return;
+			}
+			throw new IllegalArgumentException("Only Bernoulli collectors with the same success value can be merged.");
+		}
+		BernoulliCollector bernoulli = (BernoulliCollector) other;
+		numberOfTrials += bernoulli.numberOfTrials;
+		numberOfSuccesses += bernoulli.numberOfSuccesses;
+	}
+
+	/**
+	 * Returns the moments of the observations, computed from the numbers of trials and successes, so that this
+	 * collector can be merged into other kinds of collectors.
+	 */
+	@Override
+	StatCollector moments() {
+		if (numberOfTrials == 0) {
+			return new StatCollector();
+		}
+		double sumOfSquaredDev = successValue * successValue * numberOfSuccesses * (numberOfTrials - numberOfSuccesses)
+				/ numberOfTrials;
+		return ofMoments(numberOfTrials, getAverage(), sumOfSquaredDev);
+	}
+
+	/**
+	 * Creates a new empty Bernoulli collector with the same success value and interval as this one.
+	 *
+	 * @return a new collector whose observations can be merged into this collector
+	 */
+	@Override
+	public StatCollector newCollector() {
+		return new BernoulliCollector(successValue, interval);
+	}
+
+	/**
+	 * Writes the numbers of trials and successes of this collector to out.
+	 *
+	 * @param out output to which the state is written
+	 * @throws IOException if the state cannot be written
+	 */
+	@Override
+	public void writeTo(DataOutput out) throws IOException {
+		out.writeLong(numberOfTrials);
+		out.writeLong(numberOfSuccesses);
+	}
+
+	/**
+	 * Replaces the state of this collector by a state read from in, as written by {@link #writeTo}.
+	 *
+	 * @param in input from which the state is read
+	 * @throws IOException if the state cannot be read or is not valid
+	 */
+	@Override
+	public void readFrom(DataInput in) throws IOException {
+		long trials = in.readLong();
+		long successes = in.readLong();
+		if (successes < 0 || successes > trials) {
+			throw new IOException("Invalid collector state.");
+		}
+		numberOfTrials = trials;
+		numberOfSuccesses = successes;
+	}
+
+	/**
+	 * Returns the number of observations equal to the success value added to this collector since its last
+	 * initialization.
+	 *
+	 * @return the number of successes
+	 */
+	public long getNumberOfSuccesses() {
+		return numberOfSuccesses;
+	}
+
+	/**
+	 * Returns the number of observations added to this collector since its last initialization.
+	 *
+	 * @return the number of added observations since last initialization
+	 */
+	@Override
+	public long getNumberOfObs() {
+		return numberOfTrials;
+	}
+
+	/**
+	 * Returns the average of the collected observations since its last initialization, that is the success value
+	 * times the proportion of successes.
+	 * <p>
+	 * If no observations were added since last initialization, Double.NaN is returned.
+	 *
+	 * @return the average value of the collected observations
+	 */
+	@Override
+	public double getAverage() {
+		if (numberOfTrials == 0) {
+			return Double.NaN;
+		}
+		return successValue * numberOfSuccesses / numberOfTrials;
+	}
+
+	/**
+	 * Returns the sample variance of the collected observations since its last initialization.
+	 * <p>
+	 * If this collection contains less than two observations, Double.NaN is returned.
+	 *
+	 * @return the sample variance of the collected observations
+	 */
+	@Override
+	public double getVariance() {
+		if (numberOfTrials < 2) {
+			return Double.NaN;
+		}
+		double p = (double) numberOfSuccesses / numberOfTrials;
+		return successValue * successValue * p * (1.0 - p) * numberOfTrials / (numberOfTrials - 1);
+	}
+
+	/**
+	 * Computes a confidence interval with given confidence level for the mean of the collected observations
+	 * and returns half of the interval width. The interval is not centered on the average of the observations.
+	 * <p>
+	 * If this collection contains no observations, Double.NaN is returned.
+	 *
+	 * @param level the desired level of confidence of the C.I.
+	 * @return the half-width of the C.I
+	 * @throws IllegalArgumentException if level is not between 0 and 1
+	 */
+	@Override
+	public double getConfidenceIntervalHalfWidth(double level) {
+		double[] bounds = getConfidenceInterval(level);
+		return (bounds[1] - bounds[0]) / 2.0;
+	}
+
+	/**
+	 * Computes a confidence interval with given confidence level for the mean of the collected observations.
+	 * <p>
+	 * If this collection contains no observations, both bounds are Double.NaN.
+	 *
+	 * @param level the desired level of confidence of the C.I.
+	 * @return the lower and upper bounds of the C.I.
+	 * @throws IllegalArgumentException if level is not between 0 and 1
+	 */
+	public double[] getConfidenceInterval(double level) {
+		// Check argument
+		if (level < 0.0 || level > 1.0) {
+			throw new IllegalArgumentException("Confidence level should be between 0 and 1.");
+		}
+		if (numberOfTrials == 0) {
+			return new double[]{Double.NaN, Double.NaN};
+		}
+
+		double lower;
+		double upper;
+		if (interval == Interval.WILSON) {
+			double z = InverseStdNormalCDF.getQuantile(0.5 + level / 2.0);
+			double n = numberOfTrials;
+			double p = numberOfSuccesses / n;
+			double center = (p + z * z / (2 * n)) / (1 + z * z / n);
+			double halfWidth = z / (1 + z * z / n) * Math.sqrt(p * (1 - p) / n + z * z / (4 * n * n));
+			lower = Math.max(0.0, center - halfWidth);
+			upper = Math.min(1.0, center + halfWidth);
+		} else {
+			double alpha = 1.0 - level;
+			long x = numberOfSuccesses;
+			long n = numberOfTrials;
+			lower = x == 0 ? 0.0 : inverseRegularizedBeta(alpha / 2.0, x, n - x + 1);
+			upper = x == n ? 1.0 : inverseRegularizedBeta(1.0 - alpha / 2.0, x + 1, n - x);
+		}
+
+		if (successValue > 0) {
+			return new double[]{successValue * lower, successValue * upper};
+		} else {
+			return new double[]{successValue * upper, successValue * lower};
+		}
+	}
+
+	/**
+	 * Returns the value p such that the regularized incomplete beta function I_p(a, b) equals prob, that is the
+	 * quantile of order prob of the beta distribution of parameters a and b, found by bisection.
+	 */
+	private static double inverseRegularizedBeta(double prob, double a, double b) {
+		double lo = 0.0;
+		double hi = 1.0;
+		for (int i = 0; i < 100 && hi - lo > 1e-15; ++i) {
+			double mid = (lo + hi) / 2.0;
+			if (regularizedBeta(mid, a, b) < prob) {
+				lo = mid;
+			} else {
+				hi = mid;
+			}
+		}
+		return (lo + hi) / 2.0;
+	}
+
+	/**
+	 * Returns the regularized incomplete beta function I_x(a, b), computed with its continued fraction (Lentz's
+	 * method), using the symmetry I_x(a, b) = 1 - I_(1-x)(b, a) where the fraction converges faster.
+	 */
+	private static double regularizedBeta(double x, double a, double b) {
+		if (x <= 0.0) {
+			return 0.0;
+		}
+		if (x >= 1.0) {
+			return 1.0;
+		}
+		double front = Math.exp(logGamma(a + b) - logGamma(a) - logGamma(b) + a * Math.log(x) + b * Math.log1p(-x));
+		if (x < (a + 1) / (a + b + 2)) {
+			return front * betaContinuedFraction(x, a, b) / a;
+		} else {
+			return 1.0 - front * betaContinuedFraction(1.0 - x, b, a) / b;
+		}
+	}
+
+	/**
+	 * Evaluates the continued fraction of the incomplete beta function.
+	 */
+	private static double betaContinuedFraction(double x, double a, double b) {
+		final double tiny = 1e-300;
+		double c = 1.0;
+		double d = 1.0 - (a + b) * x / (a + 1);
+		d = 1.0 / (Math.abs(d) < tiny ? tiny : d);
+		double h = d;
+		for (int m = 1; m <= MAX_ITERATIONS; ++m) {
+			int m2 = 2 * m;
+			// Even step
+			double num = m * (b - m) * x / ((a + m2 - 1) * (a + m2));
+			d = 1.0 + num * d;
+			d = 1.0 / (Math.abs(d) < tiny ? tiny : d);
+			c = 1.0 + num / c;
+			c = Math.abs(c) < tiny ? tiny : c;
+			h *= d * c;
+			// Odd step
+			num = -(a + m) * (a + b + m) * x / ((a + m2) * (a + m2 + 1));
+			d = 1.0 + num * d;
+			d = 1.0 / (Math.abs(d) < tiny ? tiny : d);
+			c = 1.0 + num / c;
+			c = Math.abs(c) < tiny ? tiny : c;
+			double delta = d * c;
+			h *= delta;
+			if (Math.abs(delta - 1.0) < 1e-15) {
+				break;
+			}
+		}
+		return h;
+	}
+
+	/**
+	 * Returns the natural logarithm of the gamma function for x > 0, with the Lanczos approximation.
+	 */
+	private static double logGamma(double x) {
+		final double[] coefficients = {
+				0.99999999999980993, 676.5203681218851, -1259.1392167224028, 771.32342877765313,
+				-176.61502916214059, 12.507343278686905, -0.13857109526572012, 9.9843695780195716e-6,
+				1.5056327351493116e-7
+		};
+		double sum = coefficients[0];
+		double t = x + 6.5;
+		for (int i = 1; i < coefficients.length; ++i) {
+			sum += coefficients[i] / (x - 1 + i);
+		}
+		return 0.5 * Math.log(2 * Math.PI) + (x - 0.5) * Math.log(t) - t + Math.log(sum);
+	}
+}
@@ -0,0 +1,189 @@
+package statistics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Collector that can be shared by many threads adding observations concurrently, in the spirit of
+ * {@link java.util.concurrent.atomic.LongAdder}.
+ * <p>
+ * The observations are spread over striped cells, each one holding the number, mean and sum of squared deviations
+ * of its own observations and padded so that no two cells share a cache line. A thread always updates the same
+ * cell, chosen from its id, under the lock of that cell only: as long as there are more cells than writing
+ * threads, the locks are uncontended and the collector scales with the number of threads. Blocks of observations
+ * are summarized outside of the lock and combined with the cell in constant time.
+ * <p>
+ * The statistics are computed on read by merging the cells with the pairwise update of Chan et al. Like
+ * LongAdder.sum(), a read concurrent with updates is not an atomic snapshot: it includes each cell as it was when
+ * merged. Reads are more expensive than with a {@link StatCollector} and should not be done after each update.
+ */
+public class ConcurrentStatCollector extends StatCollector {
+
+	private final Cell[] cells;
+	private final int mask;  // number of cells - 1
+
+	/**
+	 * Moments of the observations of the threads using the cell. The padding after the fields of StatCollector
+	 * keeps the fields of consecutive cells in different cache lines, adjacent-line prefetching included.
+	 */
+	@SuppressWarnings("unused")
+	private static final class Cell extends StatCollector {
+		long p01, p02, p03, p04, p05, p06, p07, p08, p09, p10, p11, p12, p13, p14, p15, p16;
+	}
+
+	/**
+	 * Creates a new collector with four cells per available processor, rounded up to a power of 2, and initializes
+	 * it.
+	 */
+	public ConcurrentStatCollector() {
+		this(4 * Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a new collector with at least the given number of cells, rounded up to a power of 2, and initializes
+	 * it. For the collector to scale, there should be at least as many cells as threads adding observations.
+	 *
+	 * @param numberOfCells minimal number of cells
+	 * @throws IllegalArgumentException if numberOfCells is not positive or greater than 2^30
+	 */
+	public ConcurrentStatCollector(int numberOfCells) {
+		if (numberOfCells <= 0 || numberOfCells > 1 << 30) {
+			throw new IllegalArgumentException("Number of cells should be between 1 and 2^30.");
+		}
+		int n = Integer.highestOneBit(numberOfCells - 1) << 1;
+		cells = new Cell[Math.max(1, n)];
+		for (int i = 0; i < cells.length; ++i) {
+			cells[i] = new Cell();
+		}
+		mask = cells.length - 1;
+	}
+
+	/**
+	 * Returns the cell of the calling thread. Threads with consecutive ids, such as the threads of a pool, get
+	 * different cells.
+	 */
+	private Cell cell() {
+		return cells[(int) Thread.currentThread().getId() & mask];
+	}
+
+	/**
+	 * Initializes the collector. Observations added concurrently may be kept.
+	 */
+	@Override
+	public void init() {
+		// Called by the constructor of StatCollector, before the cells are created
+		if (cells == null) {
+			return;
+		}
+		for (Cell cell : cells) {
+			synchronized (cell) {
+				cell.init();
+			}
+		}
+	}
+
+	@Override
+	public void add(double x) {
+		Cell cell = cell();
+		synchronized (cell) {
+			cell.add(x);
+		}
+	}
+
+	@Override
+	public void addAll(double[] values, int len) {
+		if (len <= 0) {
+			return;
+		}
+		StatCollector block = new StatCollector();
+		block.addAll(values, len);
+		Cell cell = cell();
+		synchronized (cell) {
+			cell.merge(block);
+		}
+	}
+
+	/**
+	 * Adds all the observations collected by another collector to this collector. If the other collector is
+	 * being updated concurrently, the observations it receives meanwhile may or may not be added.
+	 *
+	 * @param other collector whose observations are to be added to this collector
+	 */
+	@Override
+	public void merge(StatCollector other) {
+		StatCollector moments = other.moments();
+		Cell cell = cell();
+		synchronized (cell) {
+			cell.merge(moments);
+		}
+	}
+
+	/**
+	 * Returns a collector containing the merged observations of all the cells. Later updates of this collector
+	 * do not change it.
+	 *
+	 * @return a new collector with the statistics of this collector
+	 */
+	public StatCollector snapshot() {
+		StatCollector snapshot = new StatCollector();
+		for (Cell cell : cells) {
+			synchronized (cell) {
+				snapshot.merge(cell);
+			}
+		}
+		return snapshot;
+	}
+
+	@Override
+	StatCollector moments() {
+		return snapshot();
+	}
+
+	@Override
+	public void writeTo(DataOutput out) throws IOException {
+		snapshot().writeTo(out);
+	}
+
+	/**
+	 * Replaces the state of this collector by a state read from in, as written by {@link #writeTo}. Must not be
+	 * called while observations are added.
+	 *
+	 * @param in input from which the state is read
+	 * @throws IOException if the state cannot be read or is not valid
+	 */
+	@Override
+	public void readFrom(DataInput in) throws IOException {
+		StatCollector state = new StatCollector();
+		state.readFrom(in);
+		init();
+		synchronized (cells[0]) {
+			cells[0].merge(state);
+		}
+	}
+
+	@Override
+	public long getNumberOfObs() {
+		return snapshot().getNumberOfObs();
+	}
+
+	@Override
+	public double getAverage() {
+		return snapshot().getAverage();
+	}
+
+	@Override
+	public double getVariance() {
+		return snapshot().getVariance();
+	}
+
+	@Override
+	public double getStandardDeviation() {
+		return snapshot().getStandardDeviation();
+	}
+
+	@Override
+	public double getConfidenceIntervalHalfWidth(double level) {
+		return snapshot().getConfidenceIntervalHalfWidth(level);
+	}
+}
@@ -0,0 +1,244 @@
+package statistics;
+
+import java.util.Arrays;
+
+/**
+ * This class provides a collector for observations of a performance measure together with one or more control
+ * variates of known means, and computes the control-variate estimator of the mean of the performance measure.
+ * <p>
+ * The optimal coefficients of the controls are estimated by a streaming least-squares regression of the
+ * performance measure on the controls: the means and the sums of squared and cross deviations of all the
+ * collected data are updated at each observation and the coefficients are recomputed from them on request.
+ * <p>
+ * The average, variance and C.I. returned by this collector are those of the adjusted observations
+ * Y - b (C - E[C]), with the same methods as a {@link StatCollector}. It is not a StatCollector however: each
+ * observation must be added with its controls by {@link #add(double, double[])}, and the regression state cannot
+ * be merged with the moments of plain observations.
+ */
+public class ControlVariateCollector {
+
+	private final double[] controlMeans;       // known means of the controls
+	private long numberOfObs;                  // number of collected data
+	private double avgOfObs;                   // mean of the collected performance measures
+	private final double[] avgOfControls;      // means of the collected controls
+	private double sumOfSquaredDev;            // sum of squared deviations of the performance measures
+	private final double[] sumOfCrossDev;      // sums of cross deviations of the controls and the performance measures
+	private final double[][] controlsSumOfDev; // sums of cross deviations of the controls with each other
+	private final double[] deltaOfControls;    // deviations of the last added controls to the previous means
+
+	/**
+	 * Creates a new collector for controls with the given known means and initializes it.
+	 *
+	 * @param controlMeans known means of the controls
+	 * @throws IllegalArgumentException if no control means are given
+	 */
+	public ControlVariateCollector(double[] controlMeans) {
+		if (controlMeans.length == 0) {
+			throw new IllegalArgumentException("At least one control should be given.");
+		}
+		this.controlMeans = controlMeans.clone();
+		avgOfControls = new double[controlMeans.length];
+		sumOfCrossDev = new double[controlMeans.length];
+		controlsSumOfDev = new double[controlMeans.length][controlMeans.length];
+		deltaOfControls = new double[controlMeans.length];
+		init();
+	}
+
+	/**
+	 * Initializes the collector
+	 */
+	public void init() {
+		numberOfObs = 0L;
+		avgOfObs = 0.0;
+		sumOfSquaredDev = 0.0;
+		Arrays.fill(avgOfControls, 0.0);
+		Arrays.fill(sumOfCrossDev, 0.0);
+		for (double[] row : controlsSumOfDev) {
+			Arrays.fill(row, 0.0);
+		}
+	}
+
+	/**
+	 * Returns the number of controls of the observations.
+	 *
+	 * @return the number of controls
+	 */
+	public int getNumberOfControls() {
+		return controlMeans.length;
+	}
+
+	/**
+	 * Adds a new observation of the performance measure and of its controls to this collector.
+	 *
+	 * @param y        observation of the performance measure
+	 * @param controls observations of the controls, in the same order as their means
+	 * @throws IllegalArgumentException if the number of controls is wrong
+	 */
+	public void add(double y, double[] controls) {
+		int q = controlMeans.length;
+		if (controls.length < q) {
+			throw new IllegalArgumentException("Expected " + q + " controls.");
+		}
+
+		numberOfObs++;
+		double deltaY = y - avgOfObs;
+		avgOfObs += deltaY / numberOfObs;
+		double newDeltaY = y - avgOfObs;
+		sumOfSquaredDev += deltaY * newDeltaY;
+
+		for (int j = 0; j < q; ++j) {
+			deltaOfControls[j] = controls[j] - avgOfControls[j];
+			avgOfControls[j] += deltaOfControls[j] / numberOfObs;
+			sumOfCrossDev[j] += deltaOfControls[j] * newDeltaY;
+		}
+		// Cross deviations use the deviations to the previous means times the deviations to the updated ones
+		for (int j = 0; j < q; ++j) {
+			double[] row = controlsSumOfDev[j];
+			for (int k = 0; k < q; ++k) {
+				row[k] += deltaOfControls[j] * (controls[k] - avgOfControls[k]);
+			}
+		}
+	}
+
+	/**
+	 * Returns the current estimates of the optimal coefficients of the controls, that is the coefficients of
+	 * the least-squares regression of the performance measure on the controls.
+	 * <p>
+	 * If this collection contains no more observations than controls, or if the controls are linearly
+	 * dependent, an array of Double.NaN is returned.
+	 *
+	 * @return the estimated coefficients of the controls
+	 */
+	public double[] getCoefficients() {
+		int q = controlMeans.length;
+		double[] coefficients = new double[q];
+		if (numberOfObs <= q) {
+			Arrays.fill(coefficients, Double.NaN);
+			return coefficients;
+		}
+
+		// Solve controlsSumOfDev * b = sumOfCrossDev by Gaussian elimination with partial pivoting
+		double[][] a = new double[q][];
+		for (int j = 0; j < q; ++j) {
+			a[j] = Arrays.copyOf(controlsSumOfDev[j], q + 1);
+			a[j][q] = sumOfCrossDev[j];
+		}
+		for (int col = 0; col < q; ++col) {
+			int pivot = col;
+			for (int row = col + 1; row < q; ++row) {
+				if (Math.abs(a[row][col]) > Math.abs(a[pivot][col])) {
+					pivot = row;
+				}
+			}
+			if (a[pivot][col] == 0.0) {
+				Arrays.fill(coefficients, Double.NaN);
+				return coefficients;
+			}
+			double[] tmp = a[col];
+			a[col] = a[pivot];
+			a[pivot] = tmp;
+
+			for (int row = col + 1; row < q; ++row) {
+				double factor = a[row][col] / a[col][col];
+				for (int k = col; k <= q; ++k) {
+					a[row][k] -= factor * a[col][k];
+				}
+			}
+		}
+		for (int row = q - 1; row >= 0; --row) {
+			double sum = a[row][q];
+			for (int k = row + 1; k < q; ++k) {
+				sum -= a[row][k] * coefficients[k];
+			}
+			coefficients[row] = sum / a[row][row];
+		}
+		return coefficients;
+	}
+
+	/**
+	 * Returns the number of observations added to this collector since its last initialization.
+	 *
+	 * @return the number of added observations since last initialization
+	 */
+	public long getNumberOfObs() {
+		return numberOfObs;
+	}
+
+	/**
+	 * Returns the control-variate estimate of the mean of the performance measure, that is the average of
+	 * the observations adjusted with the current estimates of the coefficients of the controls.
+	 * <p>
+	 * If this collection contains no more observations than controls, the plain average of the observations
+	 * is returned, and if it contains no observations, Double.NaN is returned.
+	 *
+	 * @return the control-variate estimate of the mean
+	 */
+	public double getAverage() {
+		if (numberOfObs == 0) {
+			return Double.NaN;
+		}
+		if (numberOfObs <= controlMeans.length) {
+			return avgOfObs;
+		}
+
+		double[] coefficients = getCoefficients();
+		double avg = avgOfObs;
+		for (int j = 0; j < controlMeans.length; ++j) {
+			avg -= coefficients[j] * (avgOfControls[j] - controlMeans[j]);
+		}
+		return avg;
+	}
+
+	/**
+	 * Returns the residual variance of the regression of the performance measure on the controls, that is the
+	 * sample variance of the adjusted observations.
+	 * <p>
+	 * If this collection contains less than two observations more than controls, Double.NaN is returned.
+	 *
+	 * @return the residual variance of the collected observations
+	 */
+	public double getVariance() {
+		int q = controlMeans.length;
+		if (numberOfObs < q + 2) {
+			return Double.NaN;
+		}
+
+		double[] coefficients = getCoefficients();
+		double residual = sumOfSquaredDev;
+		for (int j = 0; j < q; ++j) {
+			residual -= coefficients[j] * sumOfCrossDev[j];
+		}
+		return Math.max(0.0, residual) / (numberOfObs - q - 1);
+	}
+
+	/**
+	 * Returns the residual standard deviation of the regression of the performance measure on the controls.
+	 * <p>
+	 * If this collection contains less than two observations more than controls, Double.NaN is returned.
+	 *
+	 * @return the residual standard deviation of the collected observations
+	 */
+	public double getStandardDeviation() {
+		return Math.sqrt(getVariance());
+	}
+
+	/**
+	 * Computes a confidence interval with given confidence level for the control-variate estimate of the mean
+	 * and returns half of the interval width.
+	 * <p>
+	 * If this collection contains less than two observations more than controls, Double.NaN is returned.
+	 *
+	 * @param level the desired level of confidence of the C.I.
+	 * @return the half-width of the C.I
+	 * @throws IllegalArgumentException if level is not between 0 and 1
+	 */
+	public double getConfidenceIntervalHalfWidth(double level) {
+		// Check argument
+		if (level < 0.0 || level > 1.0) {
+			throw new IllegalArgumentException("Confidence level should be between 0 and 1.");
+		}
+
+		double normalQuantile = InverseStdNormalCDF.getQuantile(0.5 + level / 2.0);
+		return normalQuantile * getStandardDeviation() / Math.sqrt(numberOfObs);
+	}
+}
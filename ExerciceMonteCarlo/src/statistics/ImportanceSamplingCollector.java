@@ -0,0 +1,187 @@
+package statistics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * This class provides a collector for importance sampling, where each observation f(X) of a point X drawn from a
+ * proposal distribution comes with its likelihood ratio w(X), that is the ratio of the nominal density to the
+ * proposal density at X.
+ * <p>
+ * The average, variance and C.I. returned by this collector are those of the weighted observations f(X) w(X),
+ * whose mean is the mean of f under the nominal distribution, with the same methods as a {@link StatCollector}. It
+ * is not a StatCollector however: each observation must be added with its weight by {@link #add(double, double)}.
+ */
+public class ImportanceSamplingCollector {
+
+	private final StatCollector weightedObs = new StatCollector();  // observations multiplied by their likelihood ratio
+	private double sumOfWeights;          // sum of the likelihood ratios
+	private double sumOfSquaredWeights;   // sum of the squared likelihood ratios
+	private double sumOfWeightedObs;      // sum of the observations multiplied by their likelihood ratio
+
+	/**
+	 * Creates a new collector and initializes it
+	 */
+	public ImportanceSamplingCollector() {
+		init();
+	}
+
+	/**
+	 * Initializes the collector
+	 */
+	public void init() {
+		weightedObs.init();
+		sumOfWeights = 0.0;
+		sumOfSquaredWeights = 0.0;
+		sumOfWeightedObs = 0.0;
+	}
+
+	/**
+	 * Adds a new observation and its likelihood ratio to this collector.
+	 *
+	 * @param x      observation of the performance measure at a point drawn from the proposal distribution
+	 * @param weight likelihood ratio of the point
+	 */
+	public void add(double x, double weight) {
+		double weighted = x * weight;
+		weightedObs.add(weighted);
+		sumOfWeights += weight;
+		sumOfSquaredWeights += weight * weight;
+		sumOfWeightedObs += weighted;
+	}
+
+	/**
+	 * Adds all the observations collected by another importance sampling collector to this collector.
+	 *
+	 * @param other collector whose observations are to be added to this collector
+	 */
+	public void merge(ImportanceSamplingCollector other) {
+		weightedObs.merge(other.weightedObs);
+		sumOfWeights += other.sumOfWeights;
+		sumOfSquaredWeights += other.sumOfSquaredWeights;
+		sumOfWeightedObs += other.sumOfWeightedObs;
+	}
+
+	/**
+	 * Writes the state of this collector, including the sums of the likelihood ratios, to out.
+	 *
+	 * @param out output to which the state is written
+	 * @throws IOException if the state cannot be written
+	 */
+	public void writeTo(DataOutput out) throws IOException {
+		weightedObs.writeTo(out);
+		out.writeDouble(sumOfWeights);
+		out.writeDouble(sumOfSquaredWeights);
+		out.writeDouble(sumOfWeightedObs);
+	}
+
+	/**
+	 * Replaces the state of this collector by a state read from in, as written by {@link #writeTo}. The collector is
+	 * left unchanged if the state cannot be read.
+	 *
+	 * @param in input from which the state is read
+	 * @throws IOException if the state cannot be read or is not valid
+	 */
+	public void readFrom(DataInput in) throws IOException {
+		StatCollector newWeightedObs = new StatCollector();
+		newWeightedObs.readFrom(in);
+		double newSumOfWeights = in.readDouble();
+		double newSumOfSquaredWeights = in.readDouble();
+		double newSumOfWeightedObs = in.readDouble();
+
+		weightedObs.init();
+		weightedObs.merge(newWeightedObs);
+		sumOfWeights = newSumOfWeights;
+		sumOfSquaredWeights = newSumOfSquaredWeights;
+		sumOfWeightedObs = newSumOfWeightedObs;
+	}
+
+	/**
+	 * Returns the number of observations added to this collector since its last initialization.
+	 *
+	 * @return the number of added observations since last initialization
+	 */
+	public long getNumberOfObs() {
+		return weightedObs.getNumberOfObs();
+	}
+
+	/**
+	 * Returns the average of the weighted observations, that is the importance sampling estimate of the mean of
+	 * the performance measure under the nominal distribution.
+	 * <p>
+	 * If no observations were added since last initialization, Double.NaN is returned.
+	 *
+	 * @return the average of the weighted observations
+	 */
+	public double getAverage() {
+		return weightedObs.getAverage();
+	}
+
+	/**
+	 * Returns the sample variance of the weighted observations.
+	 * <p>
+	 * If this collection contains less than two observations, Double.NaN is returned.
+	 *
+	 * @return the sample variance of the weighted observations
+	 */
+	public double getVariance() {
+		return weightedObs.getVariance();
+	}
+
+	/**
+	 * Returns the sample standard deviation of the weighted observations.
+	 * <p>
+	 * If this collection contains less than two observations, Double.NaN is returned.
+	 *
+	 * @return the sample standard deviation of the weighted observations
+	 */
+	public double getStandardDeviation() {
+		return weightedObs.getStandardDeviation();
+	}
+
+	/**
+	 * Computes a confidence interval with given confidence level for the importance sampling estimate of the mean
+	 * and returns half of the interval width.
+	 * <p>
+	 * If this collection contains less than two observations, Double.NaN is returned.
+	 *
+	 * @param level the desired level of confidence of the C.I.
+	 * @return the half-width of the C.I
+	 * @throws IllegalArgumentException if level is not between 0 and 1
+	 */
+	public double getConfidenceIntervalHalfWidth(double level) {
+		return weightedObs.getConfidenceIntervalHalfWidth(level);
+	}
+
+	/**
+	 * Returns the effective sample size (sum of w)^2 / (sum of w^2) of the collected observations, that is the
+	 * number of observations drawn from the nominal distribution that the weighted sample is worth. Values much
+	 * lower than the number of observations indicate a proposal far from the nominal distribution.
+	 * <p>
+	 * If no observations were added since last initialization, Double.NaN is returned.
+	 *
+	 * @return the effective sample size
+	 */
+	public double getEffectiveSampleSize() {
+		if (getNumberOfObs() == 0) {
+			return Double.NaN;
+		}
+		return sumOfWeights * sumOfWeights / sumOfSquaredWeights;
+	}
+
+	/**
+	 * Returns the self-normalized estimate (sum of f w) / (sum of w) of the mean, which is biased but only needs
+	 * the likelihood ratios up to a constant factor.
+	 * <p>
+	 * If no observations were added since last initialization, Double.NaN is returned.
+	 *
+	 * @return the self-normalized estimate of the mean
+	 */
+	public double getSelfNormalizedAverage() {
+		if (getNumberOfObs() == 0) {
+			return Double.NaN;
+		}
+		return sumOfWeightedObs / sumOfWeights;
+	}
+}
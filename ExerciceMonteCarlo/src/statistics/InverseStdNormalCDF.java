@@ -285,11 +285,11 @@ public final class InverseStdNormalCDF {
 
 		// TODO (one day...) : Handle tail of CDF correctly
 		if (prob >= 0.999) {
-			return invStdNormalCDF[499][1];
+			return sign * invStdNormalCDF[499][1];
 		}
 
 		// Compute lower array index and return linear interpolation between the two precomputed values
 		int index = ((int) Math.floor(prob * 1000)) - 500;
-		return sign * invStdNormalCDF[index][1] + 1000.0 * (invStdNormalCDF[index + 1][1] - invStdNormalCDF[index][1]) * (prob - invStdNormalCDF[index][0]);
+		return sign * (invStdNormalCDF[index][1] + 1000.0 * (invStdNormalCDF[index + 1][1] - invStdNormalCDF[index][1]) * (prob - invStdNormalCDF[index][0]));
 	}
 }
@@ -0,0 +1,288 @@
+package statistics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * This class provides useful methods for collecting multidimensional data (arrays of doubles of a fixed dimension)
+ * and for computing their means, variances and covariances in a single pass.
+ * <p>
+ * Confidence intervals are computed either for each component on its own, or jointly for all of them with the
+ * Bonferroni correction: the intervals of the d components then all contain their means with probability at least
+ * the requested level.
+ */
+public class MultivariateStatCollector {
+
+	private final int dimension;           // number of components of the observations
+	private long numberOfObs;              // number of collected data
+	private final double[] avgOfObs;       // means of the components of the collected data
+	private final double[][] sumOfCrossDev; // sums of cross deviations of the components to their means
+	private final double[] delta;          // deviations of the last added observation to the previous means
+
+	/**
+	 * Creates a new collector for observations of the given dimension and initializes it.
+	 *
+	 * @param dimension number of components of the observations
+	 * @throws IllegalArgumentException if dimension is not positive
+	 */
+	public MultivariateStatCollector(int dimension) {
+		if (dimension <= 0) {
+			throw new IllegalArgumentException("Dimension should be positive.");
+		}
+		this.dimension = dimension;
+		avgOfObs = new double[dimension];
+		sumOfCrossDev = new double[dimension][dimension];
+		delta = new double[dimension];
+		init();
+	}
+
+	/**
+	 * Initializes the collector
+	 */
+	public void init() {
+		numberOfObs = 0L;
+		Arrays.fill(avgOfObs, 0.0);
+		for (double[] row : sumOfCrossDev) {
+			Arrays.fill(row, 0.0);
+		}
+	}
+
+	/**
+	 * Returns the number of components of the observations.
+	 *
+	 * @return the dimension of the observations
+	 */
+	public int getDimension() {
+		return dimension;
+	}
+
+	/**
+	 * Adds a new observation to this collector.
+	 *
+	 * @param x observation to be added to this collector, of length at least the dimension
+	 */
+	public void add(double[] x) {
+		numberOfObs++;
+		for (int j = 0; j < dimension; ++j) {
+			delta[j] = x[j] - avgOfObs[j];
+			avgOfObs[j] += delta[j] / numberOfObs;
+		}
+		// Cross deviations use the deviations to the previous means times the deviations to the updated ones
+		for (int j = 0; j < dimension; ++j) {
+			double[] row = sumOfCrossDev[j];
+			for (int k = 0; k < dimension; ++k) {
+				row[k] += delta[j] * (x[k] - avgOfObs[k]);
+			}
+		}
+	}
+
+	/**
+	 * Adds all the observations collected by another collector of the same dimension to this collector, with
+	 * the pairwise update of Chan et al. The other collector is left unchanged.
+	 *
+	 * @param other collector whose observations are to be added to this collector
+	 * @throws IllegalArgumentException if other does not have the same dimension
+	 */
+	public void merge(MultivariateStatCollector other) {
+		if (other.dimension != dimension) {
+			throw new IllegalArgumentException("Only collectors of the same dimension can be merged.");
+		}
+		if (other.numberOfObs == 0) {
+			return;
+		}
+		long n = numberOfObs + other.numberOfObs;
+		double factor = (double) numberOfObs * other.numberOfObs / n;
+		for (int j = 0; j < dimension; ++j) {
+			delta[j] = other.avgOfObs[j] - avgOfObs[j];
+		}
+		for (int j = 0; j < dimension; ++j) {
+			for (int k = 0; k < dimension; ++k) {
+				sumOfCrossDev[j][k] += other.sumOfCrossDev[j][k] + delta[j] * delta[k] * factor;
+			}
+			avgOfObs[j] += delta[j] * ((double) other.numberOfObs / n);
+		}
+		numberOfObs = n;
+	}
+
+	/**
+	 * Writes the state of this collector to out, so that it can be restored later with {@link #readFrom}.
+	 *
+	 * @param out output to which the state is written
+	 * @throws IOException if the state cannot be written
+	 */
+	public void writeTo(DataOutput out) throws IOException {
+		out.writeInt(dimension);
+		out.writeLong(numberOfObs);
+		for (int j = 0; j < dimension; ++j) {
+			out.writeDouble(avgOfObs[j]);
+		}
+		for (int j = 0; j < dimension; ++j) {
+			for (int k = 0; k < dimension; ++k) {
+				out.writeDouble(sumOfCrossDev[j][k]);
+			}
+		}
+	}
+
+	/**
+	 * Replaces the state of this collector by a state read from in, as written by {@link #writeTo}. The collector is
+	 * left unchanged if the state cannot be read or is not valid.
+	 *
+	 * @param in input from which the state is read
+	 * @throws IOException if the state cannot be read, is not valid or does not have the same dimension
+	 */
+	public void readFrom(DataInput in) throws IOException {
+		if (in.readInt() != dimension) {
+			throw new IOException("Only states of the same dimension can be read.");
+		}
+		long n = in.readLong();
+		if (n < 0) {
+			throw new IOException("Invalid collector state.");
+		}
+		double[] avg = new double[dimension];
+		for (int j = 0; j < dimension; ++j) {
+			avg[j] = in.readDouble();
+		}
+		double[][] crossDev = new double[dimension][dimension];
+		for (int j = 0; j < dimension; ++j) {
+			for (int k = 0; k < dimension; ++k) {
+				crossDev[j][k] = in.readDouble();
+			}
+		}
+
+		numberOfObs = n;
+		for (int j = 0; j < dimension; ++j) {
+			avgOfObs[j] = avg[j];
+			System.arraycopy(crossDev[j], 0, sumOfCrossDev[j], 0, dimension);
+		}
+	}
+
+	/**
+	 * Returns the number of observations added to this collector since its last initialization.
+	 *
+	 * @return the number of added observations since last initialization
+	 */
+	public long getNumberOfObs() {
+		return numberOfObs;
+	}
+
+	/**
+	 * Returns the average of the given component of the collected observations since its last initialization.
+	 * <p>
+	 * If no observations were added since last initialization, Double.NaN is returned.
+	 *
+	 * @param component index of the component
+	 * @return the average value of the component
+	 */
+	public double getAverage(int component) {
+		return numberOfObs == 0 ? Double.NaN : avgOfObs[component];
+	}
+
+	/**
+	 * Returns the sample variance of the given component of the collected observations.
+	 * <p>
+	 * If this collection contains less than two observations, Double.NaN is returned.
+	 *
+	 * @param component index of the component
+	 * @return the sample variance of the component
+	 */
+	public double getVariance(int component) {
+		return getCovariance(component, component);
+	}
+
+	/**
+	 * Returns the sample covariance of two components of the collected observations.
+	 * <p>
+	 * If this collection contains less than two observations, Double.NaN is returned.
+	 *
+	 * @param j index of the first component
+	 * @param k index of the second component
+	 * @return the sample covariance of the components
+	 */
+	public double getCovariance(int j, int k) {
+		return numberOfObs < 2 ? Double.NaN : sumOfCrossDev[j][k] / (numberOfObs - 1);
+	}
+
+	/**
+	 * Returns the sample correlation of two components of the collected observations.
+	 * <p>
+	 * If this collection contains less than two observations, Double.NaN is returned.
+	 *
+	 * @param j index of the first component
+	 * @param k index of the second component
+	 * @return the sample correlation of the components
+	 */
+	public double getCorrelation(int j, int k) {
+		return getCovariance(j, k) / Math.sqrt(getVariance(j) * getVariance(k));
+	}
+
+	/**
+	 * Returns the sample covariance matrix of the collected observations.
+	 *
+	 * @return a new d x d array containing the covariances
+	 */
+	public double[][] getCovarianceMatrix() {
+		double[][] covariances = new double[dimension][dimension];
+		for (int j = 0; j < dimension; ++j) {
+			for (int k = 0; k < dimension; ++k) {
+				covariances[j][k] = getCovariance(j, k);
+			}
+		}
+		return covariances;
+	}
+
+	/**
+	 * Computes a confidence interval with given confidence level for the mean of the given component and returns
+	 * half of the interval width.
+	 * <p>
+	 * If this collection contains less than two observations, Double.NaN is returned.
+	 *
+	 * @param component index of the component
+	 * @param level     the desired level of confidence of the C.I.
+	 * @return the half-width of the C.I.
+	 * @throws IllegalArgumentException if level is not between 0 and 1
+	 */
+	public double getConfidenceIntervalHalfWidth(int component, double level) {
+		// Check argument
+		if (level < 0.0 || level > 1.0) {
+			throw new IllegalArgumentException("Confidence level should be between 0 and 1.");
+		}
+		return halfWidth(component, InverseStdNormalCDF.getQuantile(0.5 + level / 2.0));
+	}
+
+	/**
+	 * Computes simultaneous confidence intervals for the means of all the components, such that all of them
+	 * contain their mean with probability at least level, and returns their half widths.
+	 * <p>
+	 * With the Bonferroni correction, each interval has level 1 - (1 - level) / d. Since the quantiles of the
+	 * normal distribution are only tabulated up to 0.999, the intervals are too narrow if (1 - level) / (2d) is
+	 * below 0.001.
+	 *
+	 * @param level the desired joint level of confidence of the C.I.s
+	 * @return the half widths of the C.I.s of the components
+	 * @throws IllegalArgumentException if level is not between 0 and 1
+	 */
+	public double[] getJointConfidenceIntervalHalfWidths(double level) {
+		// Check argument
+		if (level < 0.0 || level > 1.0) {
+			throw new IllegalArgumentException("Confidence level should be between 0 and 1.");
+		}
+		double normalQuantile = InverseStdNormalCDF.getQuantile(1.0 - (1.0 - level) / (2.0 * dimension));
+		double[] halfWidths = new double[dimension];
+		for (int j = 0; j < dimension; ++j) {
+			halfWidths[j] = halfWidth(j, normalQuantile);
+		}
+		return halfWidths;
+	}
+
+	/**
+	 * Returns the half width of the C.I. of a component for the given quantile of the normal distribution.
+	 */
+	private double halfWidth(int component, double normalQuantile) {
+		if (numberOfObs < 2) {
+			return Double.NaN;
+		}
+		return normalQuantile * Math.sqrt(getVariance(component) / numberOfObs);
+	}
+}
@@ -0,0 +1,95 @@
+package statistics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Utility class to stream the raw observations written by an {@link ObservationWriter} back into collectors or any
+ * other consumer, segment by segment, in the order in which they were written.
+ */
+public final class ObservationReader {
+	// Number of observations added at once to collectors
+	private static final int CHUNK_SIZE = 4096;
+
+	/**
+	 * Private constructor. Makes it impossible to instantiate.
+	 */
+	private ObservationReader() {
+	}
+
+	/**
+	 * Adds all the observations of file to stat, in chunks through {@link StatCollector#addAll}.
+	 *
+	 * @param file path of the file given to the writer
+	 * @param stat collector to which the observations are added
+	 * @return the number of observations read
+	 * @throws IOException if the file does not exist or if a segment cannot be read or is not valid
+	 */
+	public static long readInto(Path file, StatCollector stat) throws IOException {
+		double[] chunk = new double[CHUNK_SIZE];
+		long n = 0L;
+		DoubleBuffer observations;
+		for (int segment = 0; (observations = mapSegment(file, segment)) != null; ++segment) {
+			while (observations.hasRemaining()) {
+				int len = Math.min(chunk.length, observations.remaining());
+				observations.get(chunk, 0, len);
+				stat.addAll(chunk, len);
+				n += len;
+			}
+		}
+		return n;
+	}
+
+	/**
+	 * Gives all the observations of file to action, one by one.
+	 *
+	 * @param file   path of the file given to the writer
+	 * @param action consumer of the observations, such as a histogram
+	 * @return the number of observations read
+	 * @throws IOException if the file does not exist or if a segment cannot be read or is not valid
+	 */
+	public static long forEach(Path file, DoubleConsumer action) throws IOException {
+		long n = 0L;
+		DoubleBuffer observations;
+		for (int segment = 0; (observations = mapSegment(file, segment)) != null; ++segment) {
+			while (observations.hasRemaining()) {
+				action.accept(observations.get());
+			}
+			n += observations.limit();
+		}
+		return n;
+	}
+
+	/**
+	 * Maps the given segment of file and returns its observations, or null if there is no such segment after the
+	 * first one.
+	 */
+	private static DoubleBuffer mapSegment(Path file, int segment) throws IOException {
+		Path path = ObservationWriter.segmentPath(file, segment);
+		if (segment > 0 && !Files.exists(path)) {
+			return null;
+		}
+		ByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size < ObservationWriter.HEADER_SIZE || size > Integer.MAX_VALUE) {
+				throw new IOException("Invalid observation file segment " + path + ".");
+			}
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ObservationWriter.BYTE_ORDER);
+		}
+
+		long count = buffer.getLong(8);
+		if (buffer.getInt(0) != ObservationWriter.MAGIC || buffer.getInt(4) != ObservationWriter.VERSION
+				|| count < 0 || count > (buffer.capacity() - ObservationWriter.HEADER_SIZE) / Double.BYTES) {
+			throw new IOException("Invalid observation file segment " + path + ".");
+		}
+		return buffer.slice(ObservationWriter.HEADER_SIZE, (int) count * Double.BYTES).order(ObservationWriter.BYTE_ORDER)
+				.asDoubleBuffer();
+	}
+}
@@ -0,0 +1,177 @@
+package statistics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends raw observations to segmented binary files, so that they can be analyzed after the simulation, see
+ * {@link ObservationReader}.
+ * <p>
+ * The observations are written to the segments file.0, file.1, ... through memory mappings of the whole segments:
+ * writing an array of observations is a bulk copy to memory, the operating system writing the pages to the file
+ * in the background. Each segment starts with a header giving the number of observations it contains, updated when
+ * the segment is full or when the writer is closed: the observations of the current segment are not visible to
+ * readers until then. Segments are allocated at their full size, which takes no disk space beyond the observations
+ * on file systems supporting sparse files.
+ * <p>
+ * The observations are stored as little-endian doubles.
+ */
+public class ObservationWriter implements Closeable {
+	/**
+	 * Number of observations of each segment when not specified: 64 MiB per segment.
+	 */
+	public static final int DEFAULT_OBSERVATIONS_PER_SEGMENT = 1 << 23;
+
+	static final int MAGIC = 0x4D434F42;  // "MCOB"
+	static final int VERSION = 1;
+	static final int HEADER_SIZE = 16;    // magic, version and number of observations of the segment
+	static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+	private final Path file;
+	private final int observationsPerSegment;
+	private int segment = -1;            // index of the current segment
+	private MappedByteBuffer buffer;     // mapping of the current segment
+	private DoubleBuffer observations;   // observations part of the current segment
+	private long numberOfObs = 0L;       // number of observations written
+	private boolean closed = false;
+
+	/**
+	 * Creates a new writer writing to segments of {@link #DEFAULT_OBSERVATIONS_PER_SEGMENT} observations.
+	 *
+	 * @param file path of the file, to which the index of each segment is appended
+	 * @throws IOException if the first segment cannot be created
+	 */
+	public ObservationWriter(Path file) throws IOException {
+		this(file, DEFAULT_OBSERVATIONS_PER_SEGMENT);
+	}
+
+	/**
+	 * Creates a new writer writing to segments of the given number of observations. The segments of a previous
+	 * file with the same path are deleted.
+	 *
+	 * @param file                   path of the file, to which the index of each segment is appended
+	 * @param observationsPerSegment number of observations of each segment
+	 * @throws IOException              if the first segment cannot be created
+	 * @throws IllegalArgumentException if observationsPerSegment is not positive or too large for a segment to be
+	 *                                  mapped
+	 */
+	public ObservationWriter(Path file, int observationsPerSegment) throws IOException {
+		if (observationsPerSegment <= 0 || observationsPerSegment > (Integer.MAX_VALUE - HEADER_SIZE) / Double.BYTES) {
+			throw new IllegalArgumentException("Number of observations per segment should be positive and less than 2^28.");
+		}
+		this.file = file;
+		this.observationsPerSegment = observationsPerSegment;
+
+		// A reader would otherwise read the segments of a longer previous file after the new ones
+		int previousSegment = 0;
+		while (Files.deleteIfExists(segmentPath(file, previousSegment))) {
+			++previousSegment;
+		}
+		nextSegment();
+	}
+
+	/**
+	 * Returns the path of the given segment of file.
+	 */
+	static Path segmentPath(Path file, int segment) {
+		return file.resolveSibling(file.getFileName() + "." + segment);
+	}
+
+	/**
+	 * Appends an observation to the file.
+	 *
+	 * @param x observation to be written
+	 * @throws IOException if a new segment cannot be created or if the writer is closed
+	 */
+	public void add(double x) throws IOException {
+		if (!observations.hasRemaining()) {
+			nextSegment();
+		}
+		observations.put(x);
+		numberOfObs++;
+	}
+
+	/**
+	 * Appends the first len elements of values to the file.
+	 *
+	 * @param values array containing the observations to be written
+	 * @param len    number of observations to be written
+	 * @throws IOException if a new segment cannot be created or if the writer is closed
+	 */
+	public void addAll(double[] values, int len) throws IOException {
+		int offset = 0;
+		while (offset < len) {
+			if (!observations.hasRemaining()) {
+				nextSegment();
+			}
+			int n = Math.min(len - offset, observations.remaining());
+			observations.put(values, offset, n);
+			offset += n;
+		}
+		numberOfObs += Math.max(0, len);
+	}
+
+	/**
+	 * Returns the number of observations written to the file.
+	 *
+	 * @return the number of written observations
+	 */
+	public long getNumberOfObs() {
+		return numberOfObs;
+	}
+
+	/**
+	 * Records the number of observations of the current segment and releases it. Further observations cannot be
+	 * written.
+	 */
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		finishSegment();
+		closed = true;
+		buffer = null;
+		// Adding observations now asks for a new segment, which fails
+		observations = DoubleBuffer.allocate(0);
+	}
+
+	/**
+	 * Records the number of observations of the current segment in its header.
+	 */
+	private void finishSegment() {
+		buffer.putLong(8, observations.position());
+	}
+
+	/**
+	 * Finishes the current segment, if any, and maps the next one.
+	 */
+	private void nextSegment() throws IOException {
+		if (closed) {
+			throw new IOException("Observation writer is closed.");
+		}
+		if (buffer != null) {
+			finishSegment();
+		}
+		++segment;
+		// The mapping remains valid once the channel is closed
+		try (FileChannel channel = FileChannel.open(segmentPath(file, segment), StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+					HEADER_SIZE + (long) observationsPerSegment * Double.BYTES);
+		}
+		buffer.order(BYTE_ORDER);
+		buffer.putInt(0, MAGIC);
+		buffer.putInt(4, VERSION);
+		buffer.putLong(8, 0L);
+		observations = buffer.slice(HEADER_SIZE, observationsPerSegment * Double.BYTES).order(BYTE_ORDER)
+				.asDoubleBuffer();
+	}
+}
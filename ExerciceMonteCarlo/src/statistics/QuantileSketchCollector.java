@@ -0,0 +1,603 @@
+package statistics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Collector estimating the quantiles of the collected observations in bounded memory, with the KLL sketch of
+ * Karnin, Lang and Liberty, on top of the statistics computed by {@link StatCollector}.
+ * <p>
+ * The sketch keeps a hierarchy of levels: an observation kept at level h stands for 2^h observations. When the
+ * sketch is full, a level is compacted: its items are sorted and one out of two, starting at random from the first
+ * or second one, is promoted to the next level. Capacities decrease geometrically from the top level, which holds
+ * about k items, so that the sketch never retains more than about 3k + 8 log2(n / k) observations. The error on
+ * the rank of an estimated quantile is of the order of 2 / k of the number of observations, independently of the
+ * distribution: about 1% for the default k = 200.
+ * <p>
+ * Sketches are mergeable: the sketches of several threads or processes can be merged into one with the same
+ * accuracy as a single sketch of all the observations. The parallel simulation methods collect each chunk or batch
+ * of runs in a sketch created by {@link #newCollector()}, and merge them into this one.
+ */
+public class QuantileSketchCollector extends StatCollector {
+	/**
+	 * Value of the accuracy parameter k when not specified.
+	 */
+	public static final int DEFAULT_K = 200;
+
+	private static final double CAPACITY_RATIO = 2.0 / 3.0;  // ratio of the capacities of consecutive levels
+	private static final int MIN_CAPACITY = 8;               // capacity of the lowest levels
+	private static final long SEED = 0x1350185L;             // seed of the random choices of the compactions
+
+	private final int k;
+	private double[][] levels;    // items retained at each level, those of level h standing for 2^h observations
+	private int[] sizes;          // number of items retained at each level
+	private int[] capacities;     // capacity of each level for the current number of levels
+	private int numberOfLevels;
+	private int size;             // number of items retained at all the levels
+	private int maxSize;          // number of items beyond which a level is compacted
+	private double min;           // smallest observation
+	private double max;           // largest observation
+	private long randomBits;      // state of the xorshift generator choosing the items promoted
+	private double[] block = new double[0];  // scratch array of the blocks of observations added at once
+
+	/**
+	 * Creates a new collector with accuracy parameter {@link #DEFAULT_K} and initializes it.
+	 */
+	public QuantileSketchCollector() {
+		this(DEFAULT_K);
+	}
+
+	/**
+	 * Creates a new collector with the given accuracy parameter and initializes it. The error on the ranks of the
+	 * quantiles decreases as 1 / k, the memory used grows linearly with k.
+	 *
+	 * @param k accuracy parameter, the capacity of the top level
+	 * @throws IllegalArgumentException if k is less than 8
+	 */
+	public QuantileSketchCollector(int k) {
+		if (k < MIN_CAPACITY) {
+			throw new IllegalArgumentException("Accuracy parameter k should be at least " + MIN_CAPACITY + ".");
+		}
+		this.k = k;
+		init();
+	}
+
+	/**
+	 * Initializes the collector
+	 */
+	@Override
+	public void init() {
+		super.init();
+		// Called by the constructor of StatCollector, before k is set
+		if (k == 0) {
+			return;
+		}
+		clearSketch();
+	}
+
+	/**
+	 * Removes all the items of the sketch, without changing the statistics of StatCollector.
+	 */
+	private void clearSketch() {
+		levels = new double[4][];
+		sizes = new int[4];
+		capacities = new int[4];
+		levels[0] = new double[2 * k];
+		numberOfLevels = 1;
+		size = 0;
+		capacities[0] = capacity(0);
+		maxSize = capacities[0];
+		min = Double.POSITIVE_INFINITY;
+		max = Double.NEGATIVE_INFINITY;
+		randomBits = SEED;
+	}
+
+	/**
+	 * Returns the accuracy parameter of this collector.
+	 *
+	 * @return the accuracy parameter k
+	 */
+	public int getK() {
+		return k;
+	}
+
+	/**
+	 * Returns the number of observations retained by the sketch, which bounds the memory it uses.
+	 *
+	 * @return the number of retained observations
+	 */
+	public int getNumberOfRetainedObs() {
+		return size;
+	}
+
+	@Override
+	public void add(double x) {
+		super.add(x);
+		min = Math.min(min, x);
+		max = Math.max(max, x);
+		if (sizes[0] == levels[0].length) {
+			levels[0] = Arrays.copyOf(levels[0], 2 * levels[0].length);
+		}
+		levels[0][sizes[0]++] = x;
+		if (++size >= maxSize) {
+			compress();
+		}
+	}
+
+	/**
+	 * Adds the first len elements of values as new observations to this collector.
+	 * <p>
+	 * A block larger than the capacity of the lowest level is sorted once and compacted directly to the level at
+	 * which it fits, rather than going through the compactions of all the lower levels. Once there are enough
+	 * observations for the error to remain negligible, the block is first sampled, as in the KLL sketch with a
+	 * sampler, so that only a fraction of the observations are sorted.
+	 *
+	 * @param values array containing the observations to be added to this collector
+	 * @param len    number of observations to be added
+	 */
+	@Override
+	public void addAll(double[] values, int len) {
+		super.addAll(values, len);
+		for (int i = 0; i < len; ++i) {
+			min = Math.min(min, values[i]);
+			max = Math.max(max, values[i]);
+		}
+
+		if (len <= capacities[0]) {
+			ensureCapacity(0, sizes[0] + len);
+			System.arraycopy(values, 0, levels[0], sizes[0], len);
+			sizes[0] += len;
+			size += len;
+		} else {
+			addBlock(values, len);
+		}
+		while (size >= maxSize) {
+			compress();
+		}
+	}
+
+	/**
+	 * Adds a block of observations too large for the lowest level. The block is sampled, then sorted once and
+	 * compacted in place level after level, which keeps it sorted, until it fits in the capacity of its level.
+	 */
+	private void addBlock(double[] values, int len) {
+		if (block.length < len) {
+			block = new double[len];
+		}
+		System.arraycopy(values, 0, block, 0, len);
+		mix(block[len - 1]);
+
+		int h = 0;
+		int n = len;
+		// At the lowest levels, one item of each pair is promoted at random without sorting them. Sampling up to
+		// weight 2^h gives an error on the ranks of standard deviation at most sqrt(2^(h-1) n), kept below n / (4k)
+		// by sampling only up to weight n / (8 k^2)
+		long maxWeight = getNumberOfObs() / (8L * k * k);
+		while (n > capacities[h] && 2L << h <= maxWeight) {
+			if (h + 1 == numberOfLevels) {
+				grow();
+			}
+			int kept = n & 1;
+			if (kept == 1) {
+				ensureCapacity(h, sizes[h] + 1);
+				levels[h][sizes[h]++] = block[n - 1];
+				++size;
+			}
+			int promoted = (n - kept) / 2;
+			long bits = 0;
+			for (int i = 0; i < promoted; ++i) {
+				if ((i & 63) == 0) {
+					bits = nextRandomBits();
+				}
+				block[i] = block[2 * i + (int) ((bits >>> (i & 63)) & 1L)];
+			}
+			n = promoted;
+			++h;
+		}
+
+		Arrays.sort(block, 0, n);
+		while (n > capacities[h]) {
+			if (h + 1 == numberOfLevels) {
+				grow();
+			}
+			// If the number of items is odd, the smallest one stays at level h
+			int kept = n & 1;
+			if (kept == 1) {
+				ensureCapacity(h, sizes[h] + 1);
+				levels[h][sizes[h]++] = block[0];
+				++size;
+			}
+			int promoted = (n - kept) / 2;
+			int first = kept + nextRandomBit();
+			for (int i = 0; i < promoted; ++i) {
+				block[i] = block[first + 2 * i];
+			}
+			n = promoted;
+			++h;
+		}
+		ensureCapacity(h, sizes[h] + n);
+		System.arraycopy(block, 0, levels[h], sizes[h], n);
+		sizes[h] += n;
+		size += n;
+	}
+
+	/**
+	 * Adds all the observations collected by another quantile sketch to this collector. The accuracy of the
+	 * merged sketch is that of this collector. The other collector is left unchanged.
+	 * <p>
+	 * Empty collectors of any kind are also accepted. The observations of other non-empty collectors are unknown,
+	 * so they cannot be added to the sketch.
+	 *
+	 * @param other collector whose observations are to be added to this collector
+	 * @throws IllegalArgumentException if other is neither empty nor a quantile sketch
+	 */
+	@Override
+	public void merge(StatCollector other) {
+		if (!(other instanceof QuantileSketchCollector)) {
+			if (other.getNumberOfObs() == 0) {
+				return;
+			}
+			throw new IllegalArgumentException("Only quantile sketches can be merged into a quantile sketch.");
+		}
+		QuantileSketchCollector sketch = (QuantileSketchCollector) other;
+		super.merge(other);
+		min = Math.min(min, sketch.min);
+		max = Math.max(max, sketch.max);
+
+		while (numberOfLevels < sketch.numberOfLevels) {
+			grow();
+		}
+		for (int h = 0; h < sketch.numberOfLevels; ++h) {
+			ensureCapacity(h, sizes[h] + sketch.sizes[h]);
+			System.arraycopy(sketch.levels[h], 0, levels[h], sizes[h], sketch.sizes[h]);
+			sizes[h] += sketch.sizes[h];
+		}
+		size += sketch.size;
+		while (size >= maxSize) {
+			compress();
+		}
+	}
+
+	/**
+	 * Creates a new empty quantile sketch with the same accuracy parameter as this one.
+	 *
+	 * @return a new collector whose observations can be merged into this collector
+	 */
+	@Override
+	public StatCollector newCollector() {
+		return new QuantileSketchCollector(k);
+	}
+
+	/**
+	 * Returns the capacity of level h for the current number of levels.
+	 */
+	private int capacity(int h) {
+		return Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_RATIO, numberOfLevels - h - 1)));
+	}
+
+	/**
+	 * Adds a level on top of the others and updates the maximal number of items retained.
+	 */
+	private void grow() {
+		if (numberOfLevels == levels.length) {
+			levels = Arrays.copyOf(levels, 2 * levels.length);
+			sizes = Arrays.copyOf(sizes, 2 * sizes.length);
+			capacities = Arrays.copyOf(capacities, 2 * capacities.length);
+		}
+		levels[numberOfLevels] = new double[k + 1];
+		++numberOfLevels;
+		maxSize = 0;
+		for (int h = 0; h < numberOfLevels; ++h) {
+			capacities[h] = capacity(h);
+			maxSize += capacities[h];
+		}
+	}
+
+	/**
+	 * Makes sure that level h can hold at least the given number of items.
+	 */
+	private void ensureCapacity(int h, int capacity) {
+		if (levels[h].length < capacity) {
+			levels[h] = Arrays.copyOf(levels[h], Math.max(capacity, 2 * levels[h].length));
+		}
+	}
+
+	/**
+	 * Compacts the lowest levels exceeding their capacities until the sketch is no longer full.
+	 */
+	private void compress() {
+		for (int h = 0; h < numberOfLevels; ++h) {
+			if (sizes[h] >= capacities[h]) {
+				if (h + 1 == numberOfLevels) {
+					grow();
+				}
+				compact(h);
+				if (size < maxSize) {
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns 64 random bits, each one choosing whether the first or second item of a pair is promoted.
+	 */
+	private long nextRandomBits() {
+		// Xorshift step
+		randomBits ^= randomBits << 13;
+		randomBits ^= randomBits >>> 7;
+		randomBits ^= randomBits << 17;
+		return randomBits;
+	}
+
+	/**
+	 * Mixes an observation into the state of the xorshift generator. Sketches of different observations thus make
+	 * independent random choices, while those of the same observations make the same ones: sketches starting from
+	 * the same state would otherwise promote the first or second items at the same compactions, and the errors of
+	 * many merged sketches would add up instead of cancelling out.
+	 */
+	private void mix(double x) {
+		long mixed = randomBits ^ Double.doubleToRawLongBits(x) * 0x9E3779B97F4A7C15L;
+		// The xorshift generator must not reach the zero state
+		randomBits = mixed != 0 ? mixed : SEED;
+	}
+
+	/**
+	 * Returns a random bit choosing whether the first or second item of each pair is promoted by a compaction.
+	 */
+	private int nextRandomBit() {
+		return (int) (nextRandomBits() & 1L);
+	}
+
+	/**
+	 * Promotes one out of two items of level h, after sorting them, to level h + 1. If the number of items is odd,
+	 * the smallest one stays at level h.
+	 */
+	private void compact(int h) {
+		double[] items = levels[h];
+		int n = sizes[h];
+		Arrays.sort(items, 0, n);
+		mix(items[n - 1]);
+
+		int kept = n & 1;
+		int first = kept + nextRandomBit();
+
+		int promoted = (n - kept) / 2;
+		ensureCapacity(h + 1, sizes[h + 1] + promoted);
+		double[] next = levels[h + 1];
+		int j = sizes[h + 1];
+		for (int i = first; i < n; i += 2) {
+			next[j++] = items[i];
+		}
+		sizes[h + 1] = j;
+		sizes[h] = kept;
+		size -= n - kept - promoted;
+	}
+
+	/**
+	 * Returns the retained items sorted in increasing order in values, and the number of observations each one
+	 * stands for, cumulated, in cumulativeWeights.
+	 */
+	private void sortedView(double[] values, long[] cumulativeWeights) {
+		// Sorted items of each level are merged in place from the end with those of the previous levels, the
+		// weights being stored in cumulativeWeights before they are cumulated
+		int n = 0;
+		for (int h = 0; h < numberOfLevels; ++h) {
+			double[] items = Arrays.copyOf(levels[h], sizes[h]);
+			Arrays.sort(items);
+			long weight = 1L << h;
+			int i = n - 1;
+			int j = items.length - 1;
+			n += items.length;
+			for (int m = n - 1; j >= 0; --m) {
+				if (i >= 0 && values[i] > items[j]) {
+					values[m] = values[i];
+					cumulativeWeights[m] = cumulativeWeights[i--];
+				} else {
+					values[m] = items[j--];
+					cumulativeWeights[m] = weight;
+				}
+			}
+		}
+		for (int i = 1; i < n; ++i) {
+			cumulativeWeights[i] += cumulativeWeights[i - 1];
+		}
+	}
+
+	/**
+	 * Returns an estimate of the q-quantile of the collected observations: the smallest retained observation x
+	 * such that the estimated fraction of the observations no greater than x is at least q. The 0- and
+	 * 1-quantiles are the exact minimum and maximum.
+	 * <p>
+	 * If no observations were added since last initialization, Double.NaN is returned.
+	 *
+	 * @param q order of the quantile
+	 * @return the estimated q-quantile
+	 * @throws IllegalArgumentException if q is not between 0 and 1
+	 */
+	public double getQuantile(double q) {
+		return getQuantiles(q)[0];
+	}
+
+	/**
+	 * Returns estimates of the quantiles of the given orders, see {@link #getQuantile}. The retained observations
+	 * are sorted once for all the quantiles.
+	 *
+	 * @param orders orders of the quantiles
+	 * @return the estimated quantiles, in the order of orders
+	 * @throws IllegalArgumentException if an order is not between 0 and 1
+	 */
+	public double[] getQuantiles(double... orders) {
+		for (double q : orders) {
+			if (!(q >= 0.0 && q <= 1.0)) {
+				throw new IllegalArgumentException("Order of the quantile should be between 0 and 1.");
+			}
+		}
+		double[] quantiles = new double[orders.length];
+		long n = getNumberOfObs();
+		if (n == 0) {
+			Arrays.fill(quantiles, Double.NaN);
+			return quantiles;
+		}
+
+		double[] values = new double[size];
+		long[] cumulativeWeights = new long[size];
+		sortedView(values, cumulativeWeights);
+		for (int i = 0; i < orders.length; ++i) {
+			double q = orders[i];
+			if (q == 0.0) {
+				quantiles[i] = min;
+			} else if (q == 1.0) {
+				quantiles[i] = max;
+			} else {
+				// Smallest item whose cumulative weight reaches q * n
+				double rank = q * n;
+				int lo = 0;
+				int hi = size - 1;
+				while (lo < hi) {
+					int mid = (lo + hi) >>> 1;
+					if (cumulativeWeights[mid] >= rank) {
+						hi = mid;
+					} else {
+						lo = mid + 1;
+					}
+				}
+				quantiles[i] = values[lo];
+			}
+		}
+		return quantiles;
+	}
+
+	/**
+	 * Returns an estimate of the fraction of the collected observations no greater than x, that is of the
+	 * empirical distribution function at x.
+	 * <p>
+	 * If no observations were added since last initialization, Double.NaN is returned.
+	 *
+	 * @param x value at which the distribution function is estimated
+	 * @return the estimated fraction of the observations no greater than x
+	 */
+	public double getRank(double x) {
+		long n = getNumberOfObs();
+		if (n == 0) {
+			return Double.NaN;
+		}
+		long weight = 0;
+		for (int h = 0; h < numberOfLevels; ++h) {
+			for (int i = 0; i < sizes[h]; ++i) {
+				if (levels[h][i] <= x) {
+					weight += 1L << h;
+				}
+			}
+		}
+		return (double) weight / n;
+	}
+
+	/**
+	 * Returns the smallest collected observation.
+	 * <p>
+	 * If no observations were added since last initialization, Double.NaN is returned.
+	 *
+	 * @return the minimum of the collected observations
+	 */
+	public double getMinimum() {
+		return getNumberOfObs() == 0 ? Double.NaN : min;
+	}
+
+	/**
+	 * Returns the largest collected observation.
+	 * <p>
+	 * If no observations were added since last initialization, Double.NaN is returned.
+	 *
+	 * @return the maximum of the collected observations
+	 */
+	public double getMaximum() {
+		return getNumberOfObs() == 0 ? Double.NaN : max;
+	}
+
+	@Override
+	public void writeTo(DataOutput out) throws IOException {
+		super.writeTo(out);
+		out.writeInt(k);
+		out.writeDouble(min);
+		out.writeDouble(max);
+		out.writeLong(randomBits);
+		out.writeInt(numberOfLevels);
+		for (int h = 0; h < numberOfLevels; ++h) {
+			out.writeInt(sizes[h]);
+			for (int i = 0; i < sizes[h]; ++i) {
+				out.writeDouble(levels[h][i]);
+			}
+		}
+	}
+
+	/**
+	 * Replaces the state of this collector by a state read from in, as written by {@link #writeTo}. The collector is
+	 * left unchanged if the state is not valid.
+	 *
+	 * @param in input from which the state is read
+	 * @throws IOException if the state cannot be read, is not valid or was written by a sketch with another k
+	 */
+	@Override
+	public void readFrom(DataInput in) throws IOException {
+		QuantileSketchCollector state = new QuantileSketchCollector(k);
+		state.readState(in);
+
+		super.init();
+		super.merge(state);
+		levels = state.levels;
+		sizes = state.sizes;
+		capacities = state.capacities;
+		numberOfLevels = state.numberOfLevels;
+		size = state.size;
+		maxSize = state.maxSize;
+		min = state.min;
+		max = state.max;
+		randomBits = state.randomBits;
+	}
+
+	/**
+	 * Replaces the state of this new collector by a state read from in, leaving it partly read if the state is
+	 * not valid.
+	 */
+	private void readState(DataInput in) throws IOException {
+		super.readFrom(in);
+		if (in.readInt() != k) {
+			throw new IOException("Invalid collector state.");
+		}
+		double newMin = in.readDouble();
+		double newMax = in.readDouble();
+		long newRandomBits = in.readLong();
+		int newNumberOfLevels = in.readInt();
+		if (newNumberOfLevels < 1 || newNumberOfLevels > 63 || newRandomBits == 0) {
+			throw new IOException("Invalid collector state.");
+		}
+
+		while (numberOfLevels < newNumberOfLevels) {
+			grow();
+		}
+		long weight = 0;
+		for (int h = 0; h < numberOfLevels; ++h) {
+			int n = in.readInt();
+			if (n < 0 || n > maxSize) {
+				throw new IOException("Invalid collector state.");
+			}
+			ensureCapacity(h, n);
+			for (int i = 0; i < n; ++i) {
+				levels[h][i] = in.readDouble();
+			}
+			sizes[h] = n;
+			size += n;
+			weight += (long) n << h;
+		}
+		// Each observation is represented by exactly one retained item
+		if (weight != getNumberOfObs()) {
+			throw new IOException("Invalid collector state.");
+		}
+		min = newMin;
+		max = newMax;
+		randomBits = newRandomBits;
+	}
+}
@@ -0,0 +1,162 @@
+package statistics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Collector that also appends every raw observation it receives to an {@link ObservationWriter}, so that the
+ * output of a simulation can be analyzed later (histograms, outliers) without running it again. It can be given to
+ * any simulation method, including the parallel ones.
+ * <p>
+ * The collectors created by {@link #newCollector()} keep their raw observations in memory, and append them to the
+ * writer when they are merged into this collector. The parallel simulation methods collect each chunk or batch of
+ * runs in such a collector and merge them in order, so that the observations are recorded in the same order
+ * whatever the number of threads. The raw observations of other collectors are unknown: merging them only adds
+ * their statistics. Initializing the collector does not erase the observations already written.
+ */
+public class RecordingStatCollector extends StatCollector {
+
+	private final ObservationWriter writer;
+
+	/**
+	 * Creates a new collector writing its observations to writer and initializes it.
+	 *
+	 * @param writer writer to which the observations are appended
+	 */
+	public RecordingStatCollector(ObservationWriter writer) {
+		this.writer = writer;
+	}
+
+	/**
+	 * Returns the writer to which the observations are appended.
+	 *
+	 * @return the writer of this collector
+	 */
+	public ObservationWriter getWriter() {
+		return writer;
+	}
+
+	/**
+	 * Adds a new observation to this collector and appends it to the writer.
+	 *
+	 * @param x observation to be added to this collector
+	 * @throws UncheckedIOException if the observation cannot be written
+	 */
+	@Override
+	public void add(double x) {
+		try {
+			writer.add(x);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		super.add(x);
+	}
+
+	/**
+	 * Adds the first len elements of values as new observations to this collector and appends them to the writer.
+	 *
+	 * @param values array containing the observations to be added to this collector
+	 * @param len    number of observations to be added
+	 * @throws UncheckedIOException if the observations cannot be written
+	 */
+	@Override
+	public void addAll(double[] values, int len) {
+		try {
+			writer.addAll(values, len);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		super.addAll(values, len);
+	}
+
+	/**
+	 * Adds all the observations collected by another collector to this collector. The raw observations of the
+	 * collectors created by {@link #newCollector()} are appended to the writer; those of other collectors are not
+	 * recorded.
+	 *
+	 * @param other collector whose observations are to be added to this collector
+	 * @throws UncheckedIOException if the observations cannot be written
+	 */
+	@Override
+	public void merge(StatCollector other) {
+		if (other instanceof BufferingStatCollector) {
+			BufferingStatCollector buffered = (BufferingStatCollector) other;
+			try {
+				writer.addAll(buffered.values, buffered.size);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		super.merge(other);
+	}
+
+	/**
+	 * Creates a new empty collector keeping its raw observations in memory, so that they are recorded when it is
+	 * merged into this collector.
+	 *
+	 * @return a new collector whose observations can be merged into this collector
+	 */
+	@Override
+	public StatCollector newCollector() {
+		return new BufferingStatCollector();
+	}
+
+	/**
+	 * Collector keeping its raw observations in memory until it is merged into a recording collector.
+	 */
+	private static final class BufferingStatCollector extends StatCollector {
+		private double[] values = new double[16];
+		private int size = 0;  // number of observations in values
+
+		@Override
+		public void init() {
+			// Called by the constructor of StatCollector, before values is allocated
+			size = 0;
+			super.init();
+		}
+
+		@Override
+		public void add(double x) {
+			reserve(1);
+			values[size++] = x;
+			super.add(x);
+		}
+
+		@Override
+		public void addAll(double[] values, int len) {
+			if (len <= 0) {
+				return;
+			}
+			reserve(len);
+			System.arraycopy(values, 0, this.values, size, len);
+			size += len;
+			super.addAll(values, len);
+		}
+
+		@Override
+		public void merge(StatCollector other) {
+			if (other instanceof BufferingStatCollector) {
+				BufferingStatCollector buffered = (BufferingStatCollector) other;
+				reserve(buffered.size);
+				System.arraycopy(buffered.values, 0, values, size, buffered.size);
+				size += buffered.size;
+			}
+			super.merge(other);
+		}
+
+		/**
+		 * Makes room for len more observations in values.
+		 */
+		private void reserve(int len) {
+			long needed = (long) size + len;
+			if (needed <= values.length) {
+				return;
+			}
+			if (needed > Integer.MAX_VALUE - 8) {
+				throw new IllegalStateException("Too many observations to be kept in memory.");
+			}
+			values = Arrays.copyOf(values, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(needed, 2L * values.length)));
+		}
+	}
+}
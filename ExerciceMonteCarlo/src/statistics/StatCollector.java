@@ -1,5 +1,18 @@
 package statistics;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Supplier;
+
 /**
  * This class provides useful methods for collecting one dimensional data (of type double) and for computing basic statistics.
  */
@@ -37,6 +50,227 @@ public class StatCollector {
 		sumOfSquaredDev += delta * (x - avgOfObs);
 	}
 
+	/**
+	 * Adds the first len elements of values as new observations to this collector.
+	 * <p>
+	 * The mean and sum of squared deviations of the block are computed in two passes and then combined
+	 * with the observations already collected, which is cheaper than adding them one by one.
+	 *
+	 * @param values array containing the observations to be added to this collector
+	 * @param len    number of observations to be added
+	 */
+	public void addAll(double[] values, int len) {
+		if (len <= 0) {
+			return;
+		}
+
+		double sum = 0.0;
+		for (int i = 0; i < len; ++i) {
+			sum += values[i];
+		}
+		double avg = sum / len;
+
+		double squaredDev = 0.0;
+		for (int i = 0; i < len; ++i) {
+			double delta = values[i] - avg;
+			squaredDev += delta * delta;
+		}
+
+		combine(len, avg, squaredDev);
+	}
+
+	/**
+	 * Adds all the observations collected by another collector to this collector.
+	 * <p>
+	 * Uses the pairwise update of Chan et al., so that merging the collectors of several independent
+	 * sets of observations gives the same statistics as collecting all of them in a single collector.
+	 * Collectors of any kind can be merged into a StatCollector, their number, average and variance being
+	 * given by their getters. The other collector is left unchanged.
+	 *
+	 * @param other collector whose observations are to be added to this collector
+	 */
+	public void merge(StatCollector other) {
+		StatCollector moments = other.moments();
+		combine(moments.numberOfObs, moments.avgOfObs, moments.sumOfSquaredDev);
+	}
+
+	/**
+	 * Returns a collector whose own fields hold the moments of the observations of this collector.
+	 * <p>
+	 * Subclasses keeping their observations elsewhere, such as {@link ConcurrentStatCollector}, override the
+	 * getters: unless the getters agree with the fields of this collector, the moments are rebuilt from
+	 * getNumberOfObs(), getAverage() and getVariance(), so that such subclasses are never merged as empty ones.
+	 * Subclasses can override this method to provide their moments more accurately.
+	 */
+	StatCollector moments() {
+		long n = getNumberOfObs();
+		double avg = n > 0 ? getAverage() : 0.0;
+		double var = n > 1 ? getVariance() : 0.0;
+		if (n == numberOfObs && (n == 0 || avg == avgOfObs) && (n < 2 || var == sumOfSquaredDev / (n - 1))) {
+			return this;
+		}
+		return ofMoments(n, avg, var * (n - 1));
+	}
+
+	/**
+	 * Returns a new collector holding the given number, mean and sum of squared deviations of observations.
+	 */
+	static StatCollector ofMoments(long numberOfObs, double avgOfObs, double sumOfSquaredDev) {
+		StatCollector moments = new StatCollector();
+		moments.combine(numberOfObs, avgOfObs, sumOfSquaredDev);
+		return moments;
+	}
+
+	/**
+	 * Creates a new empty collector of the same kind as this one, with the same parameters, in which part of the
+	 * observations can be collected and then merged into this collector. The parallel simulation methods collect
+	 * each chunk or batch of runs in such a collector.
+	 * <p>
+	 * This collector creates a StatCollector. Collectors that cannot merge a StatCollector, or that keep more than
+	 * its moments, should override this method.
+	 *
+	 * @return a new collector whose observations can be merged into this collector
+	 */
+	public StatCollector newCollector() {
+		return new StatCollector();
+	}
+
+	/**
+	 * Writes the state of this collector to out, so that it can be restored later with {@link #readFrom}.
+	 *
+	 * @param out output to which the state is written
+	 * @throws IOException if the state cannot be written
+	 */
+	public void writeTo(DataOutput out) throws IOException {
+		out.writeLong(numberOfObs);
+		out.writeDouble(avgOfObs);
+		out.writeDouble(sumOfSquaredDev);
+	}
+
+	/**
+	 * Replaces the state of this collector by a state read from in, as written by {@link #writeTo}.
+	 *
+	 * @param in input from which the state is read
+	 * @throws IOException if the state cannot be read or is not valid
+	 */
+	public void readFrom(DataInput in) throws IOException {
+		long n = in.readLong();
+		double avg = in.readDouble();
+		double ssd = in.readDouble();
+		if (n < 0 || !(ssd >= 0.0)) {
+			throw new IOException("Invalid collector state.");
+		}
+		numberOfObs = n;
+		avgOfObs = avg;
+		sumOfSquaredDev = ssd;
+	}
+
+	/**
+	 * Returns the state of this collector as text, so that it can be restored later with {@link #readText}. The
+	 * text is the Base64 encoding of the state written by {@link #writeTo}, which restores it exactly and can be
+	 * embedded in text formats such as logs, CSV or JSON files and command lines.
+	 *
+	 * @return the state of this collector as text
+	 */
+	public String toText() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			writeTo(out);
+		} catch (IOException e) {
+			// Writing to memory cannot fail
+			throw new UncheckedIOException(e);
+		}
+		return Base64.getEncoder().encodeToString(bytes.toByteArray());
+	}
+
+	/**
+	 * Replaces the state of this collector by a state given as text, as returned by {@link #toText}.
+	 *
+	 * @param text state of a collector as text
+	 * @throws IOException if text is not a valid state for this collector
+	 */
+	public void readText(String text) throws IOException {
+		byte[] bytes;
+		try {
+			bytes = Base64.getDecoder().decode(text.trim());
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Invalid collector state.", e);
+		}
+		ByteArrayInputStream in = new ByteArrayInputStream(bytes);
+		readFrom(new DataInputStream(in));
+		// The state of another kind of collector could be longer
+		if (in.available() > 0) {
+			throw new IOException("Invalid collector state.");
+		}
+	}
+
+	/**
+	 * Merges the given collectors into a new StatCollector, leaving them unchanged.
+	 * <p>
+	 * Same as {@link #mergeAll(List, Supplier)} with a StatCollector as the collector of each partial result: the
+	 * collectors may be of any kind, but only their number, average and variance of observations are merged. To
+	 * keep what a kind of collector computes beyond them, such as quantiles, pass a factory of that kind.
+	 *
+	 * @param collectors collectors to be merged
+	 * @return a new collector containing the observations of all the collectors
+	 */
+	public static StatCollector mergeAll(List<? extends StatCollector> collectors) {
+		return mergeAll(collectors, StatCollector::new);
+	}
+
+	/**
+	 * Merges the given collectors into a new collector created by factory, leaving them unchanged.
+	 * <p>
+	 * The collectors are merged pairwise along a balanced binary tree rather than one after the other into the
+	 * same collector: each observation then goes through log2(k) merges instead of up to k, so that the rounding
+	 * errors of merging thousands of partial results stay at the level of those of a single pass.
+	 *
+	 * @param collectors collectors to be merged
+	 * @param factory    creates empty collectors able to merge the collectors
+	 * @param <T>        type of the collectors
+	 * @return a new collector containing the observations of all the collectors
+	 */
+	public static <T extends StatCollector> T mergeAll(List<? extends StatCollector> collectors, Supplier<T> factory) {
+		int k = collectors.size();
+		if (k == 0) {
+			return factory.get();
+		}
+		List<T> partial = new ArrayList<>(k);
+		for (StatCollector collector : collectors) {
+			T copy = factory.get();
+			copy.merge(collector);
+			partial.add(copy);
+		}
+		// At each level, the partial result i receives the one at distance step, merged at the previous levels
+		for (int step = 1; step < k; step *= 2) {
+			for (int i = 0; i + step < k; i += 2 * step) {
+				partial.get(i).merge(partial.get(i + step));
+			}
+		}
+		return partial.get(0);
+	}
+
+	/**
+	 * Adds a set of observations, given by their number, mean and sum of squared deviations, to this collector.
+	 */
+	private void combine(long otherNumberOfObs, double otherAvgOfObs, double otherSumOfSquaredDev) {
+		if (otherNumberOfObs == 0) {
+			return;
+		}
+		if (numberOfObs == 0) {
+			numberOfObs = otherNumberOfObs;
+			avgOfObs = otherAvgOfObs;
+			sumOfSquaredDev = otherSumOfSquaredDev;
+			return;
+		}
+
+		long n = numberOfObs + otherNumberOfObs;
+		double delta = otherAvgOfObs - avgOfObs;
+		avgOfObs += delta * ((double) otherNumberOfObs / n);
+		sumOfSquaredDev += otherSumOfSquaredDev + delta * delta * ((double) numberOfObs * otherNumberOfObs / n);
+		numberOfObs = n;
+	}
+
 	/**
 	 * Returns the number of observations added to this collector since its last initialization.
 	 *
@@ -84,7 +318,7 @@ public class StatCollector {
 	 * @return the sample standard deviation of the collected observations
 	 */
 	public double getStandardDeviation() {
-		if (numberOfObs < 2) {
+		if (getNumberOfObs() < 2) {
 			return Double.NaN;
 		} else {
 			return Math.sqrt(getVariance());
@@ -109,10 +343,10 @@ public class StatCollector {
 
 		double normalQuantile = InverseStdNormalCDF.getQuantile(0.5 + level / 2.0);
 
-		if (numberOfObs < 2) {
+		if (getNumberOfObs() < 2) {
 			return Double.NaN;
 		} else {
-			return normalQuantile * getStandardDeviation() / Math.sqrt(numberOfObs);
+			return normalQuantile * getStandardDeviation() / Math.sqrt(getNumberOfObs());
 		}
 
 	}
@@ -0,0 +1,265 @@
+package statistics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * This class provides a collector for data sampled separately in several strata of known probabilities, and
+ * computes the stratified estimator of the overall mean.
+ * <p>
+ * The average returned by this collector is the weighted average of the means of the strata and the C.I. is
+ * based on the variance of this estimator, with the same methods as a {@link StatCollector}. It is not a
+ * StatCollector however: each observation must be added to its stratum by {@link #add(int, double)}.
+ */
+public class StratifiedStatCollector {
+
+	private final double[] weights;         // probabilities of the strata
+	private final StatCollector[] strata;   // collected data of each stratum
+
+	/**
+	 * Creates a new collector for the given number of strata of equal probabilities and initializes it.
+	 *
+	 * @param numberOfStrata number of strata
+	 * @throws IllegalArgumentException if numberOfStrata is not positive
+	 */
+	public StratifiedStatCollector(int numberOfStrata) {
+		this(equalWeights(numberOfStrata));
+	}
+
+	/**
+	 * Creates a new collector for strata of probabilities proportional to weights and initializes it.
+	 *
+	 * @param weights relative weights of the strata
+	 * @throws IllegalArgumentException if there are no weights or if they are not all positive
+	 */
+	public StratifiedStatCollector(double[] weights) {
+		if (weights.length == 0) {
+			throw new IllegalArgumentException("At least one stratum should be given.");
+		}
+		double sum = 0.0;
+		for (double weight : weights) {
+			if (!(weight > 0.0)) {
+				throw new IllegalArgumentException("Weights of the strata should be positive.");
+			}
+			sum += weight;
+		}
+
+		this.weights = new double[weights.length];
+		strata = new StatCollector[weights.length];
+		for (int h = 0; h < weights.length; ++h) {
+			this.weights[h] = weights[h] / sum;
+			strata[h] = new StatCollector();
+		}
+		init();
+	}
+
+	private static double[] equalWeights(int numberOfStrata) {
+		if (numberOfStrata <= 0) {
+			throw new IllegalArgumentException("Number of strata should be positive.");
+		}
+		double[] weights = new double[numberOfStrata];
+		Arrays.fill(weights, 1.0);
+		return weights;
+	}
+
+	/**
+	 * Initializes the collector
+	 */
+	public void init() {
+		for (StatCollector stratum : strata) {
+			stratum.init();
+		}
+	}
+
+	/**
+	 * Returns the number of strata of this collector.
+	 *
+	 * @return the number of strata
+	 */
+	public int getNumberOfStrata() {
+		return strata.length;
+	}
+
+	/**
+	 * Returns the probability of the given stratum.
+	 *
+	 * @param stratum index of the stratum
+	 * @return the probability of the stratum
+	 */
+	public double getWeight(int stratum) {
+		return weights[stratum];
+	}
+
+	/**
+	 * Returns the number of observations added to the given stratum since the last initialization.
+	 *
+	 * @param stratum index of the stratum
+	 * @return the number of observations of the stratum
+	 */
+	public long getNumberOfObs(int stratum) {
+		return strata[stratum].getNumberOfObs();
+	}
+
+	/**
+	 * Returns the sample standard deviation of the observations of the given stratum.
+	 * <p>
+	 * If the stratum contains less than two observations, Double.NaN is returned.
+	 *
+	 * @param stratum index of the stratum
+	 * @return the sample standard deviation of the observations of the stratum
+	 */
+	public double getStandardDeviation(int stratum) {
+		return strata[stratum].getStandardDeviation();
+	}
+
+	/**
+	 * Adds a new observation of the given stratum to this collector.
+	 *
+	 * @param stratum index of the stratum of the observation
+	 * @param x       observation to be added to this collector
+	 */
+	public void add(int stratum, double x) {
+		strata[stratum].add(x);
+	}
+
+	/**
+	 * Adds the first len elements of values as new observations of the given stratum to this collector.
+	 *
+	 * @param stratum index of the stratum of the observations
+	 * @param values  array containing the observations to be added to this collector
+	 * @param len     number of observations to be added
+	 */
+	public void addAll(int stratum, double[] values, int len) {
+		strata[stratum].addAll(values, len);
+	}
+
+	/**
+	 * Adds all the observations collected by another stratified collector to this collector, stratum by stratum.
+	 *
+	 * @param other collector whose observations are to be added to this collector
+	 * @throws IllegalArgumentException if other does not have the same number of strata
+	 */
+	public void merge(StratifiedStatCollector other) {
+		if (other.strata.length != strata.length) {
+			throw new IllegalArgumentException("Only collectors with the same strata can be merged.");
+		}
+		for (int h = 0; h < strata.length; ++h) {
+			strata[h].merge(other.strata[h]);
+		}
+	}
+
+	/**
+	 * Writes the state of this collector, stratum by stratum, to out. The weights of the strata are not written.
+	 *
+	 * @param out output to which the state is written
+	 * @throws IOException if the state cannot be written
+	 */
+	public void writeTo(DataOutput out) throws IOException {
+		out.writeInt(strata.length);
+		for (StatCollector stratum : strata) {
+			stratum.writeTo(out);
+		}
+	}
+
+	/**
+	 * Replaces the state of this collector by a state read from in, as written by {@link #writeTo}. The collector is
+	 * left unchanged if the state cannot be read.
+	 *
+	 * @param in input from which the state is read
+	 * @throws IOException if the state cannot be read or does not have the same number of strata
+	 */
+	public void readFrom(DataInput in) throws IOException {
+		if (in.readInt() != strata.length) {
+			throw new IOException("Only states with the same strata can be read.");
+		}
+		StatCollector[] newStrata = new StatCollector[strata.length];
+		for (int i = 0; i < strata.length; ++i) {
+			newStrata[i] = new StatCollector();
+			newStrata[i].readFrom(in);
+		}
+
+		for (int i = 0; i < strata.length; ++i) {
+			strata[i].init();
+			strata[i].merge(newStrata[i]);
+		}
+	}
+
+	/**
+	 * Returns the total number of observations added to this collector since its last initialization.
+	 *
+	 * @return the number of added observations since last initialization
+	 */
+	public long getNumberOfObs() {
+		long n = 0;
+		for (StatCollector stratum : strata) {
+			n += stratum.getNumberOfObs();
+		}
+		return n;
+	}
+
+	/**
+	 * Returns the stratified estimate of the mean, that is the average of the means of the strata weighted by
+	 * their probabilities.
+	 * <p>
+	 * If a stratum contains no observations, Double.NaN is returned.
+	 *
+	 * @return the stratified estimate of the mean
+	 */
+	public double getAverage() {
+		double avg = 0.0;
+		for (int h = 0; h < strata.length; ++h) {
+			avg += weights[h] * strata[h].getAverage();
+		}
+		return avg;
+	}
+
+	/**
+	 * Returns the variance of the stratified estimator multiplied by the total number of observations, so that
+	 * the C.I. computed from it is the C.I. of the stratified estimate of the mean.
+	 * <p>
+	 * If a stratum contains less than two observations, Double.NaN is returned.
+	 *
+	 * @return the variance per observation of the stratified estimator
+	 */
+	public double getVariance() {
+		double variance = 0.0;
+		for (int h = 0; h < strata.length; ++h) {
+			variance += weights[h] * weights[h] * strata[h].getVariance() / strata[h].getNumberOfObs();
+		}
+		return variance * getNumberOfObs();
+	}
+
+	/**
+	 * Returns the standard deviation per observation of the stratified estimator, that is the square root of
+	 * {@link #getVariance()}.
+	 * <p>
+	 * If a stratum contains less than two observations, Double.NaN is returned.
+	 *
+	 * @return the standard deviation per observation of the stratified estimator
+	 */
+	public double getStandardDeviation() {
+		return Math.sqrt(getVariance());
+	}
+
+	/**
+	 * Computes a confidence interval with given confidence level for the stratified estimate of the mean and
+	 * returns half of the interval width.
+	 * <p>
+	 * If a stratum contains less than two observations, Double.NaN is returned.
+	 *
+	 * @param level the desired level of confidence of the C.I.
+	 * @return the half-width of the C.I
+	 * @throws IllegalArgumentException if level is not between 0 and 1
+	 */
+	public double getConfidenceIntervalHalfWidth(double level) {
+		// Check argument
+		if (level < 0.0 || level > 1.0) {
+			throw new IllegalArgumentException("Confidence level should be between 0 and 1.");
+		}
+
+		double normalQuantile = InverseStdNormalCDF.getQuantile(0.5 + level / 2.0);
+		return normalQuantile * getStandardDeviation() / Math.sqrt(getNumberOfObs());
+	}
+}
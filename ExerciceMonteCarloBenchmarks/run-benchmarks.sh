@@ -0,0 +1,32 @@
+#!/bin/sh
+# Builds ExerciceMonteCarlo, ExerciceMonteCarloVector and the benchmarks with javac, then runs BenchmarkRunner, which
+# writes the results in JSON so that they can be compared from one version to the next, for instance in CI.
+#
+# Usage: ExerciceMonteCarloBenchmarks/run-benchmarks.sh [regular expression selecting the benchmarks] [result file]
+#
+# The JMH jars (jmh-core, jmh-generator-annprocess, jopt-simple and commons-math3, in the versions of
+# .idea/libraries/jmh.xml) are taken from the directory JMH_LIB if set, and from the local Maven repository
+# otherwise. Classes are compiled to build/ and the result file is relative to the root of the project.
+set -e
+
+cd "$(dirname "$0")/.."
+
+if [ -n "$JMH_LIB" ]; then
+    JMH_CP="$JMH_LIB/*"
+else
+    M2="${MAVEN_REPOSITORY:-$HOME/.m2/repository}"
+    JMH_CP="$M2/org/openjdk/jmh/jmh-core/1.37/jmh-core-1.37.jar"
+    JMH_CP="$JMH_CP:$M2/org/openjdk/jmh/jmh-generator-annprocess/1.37/jmh-generator-annprocess-1.37.jar"
+    JMH_CP="$JMH_CP:$M2/net/sf/jopt-simple/jopt-simple/5.0.4/jopt-simple-5.0.4.jar"
+    JMH_CP="$JMH_CP:$M2/org/apache/commons/commons-math3/3.6.1/commons-math3-3.6.1.jar"
+fi
+
+BUILD=build/benchmarks
+rm -rf "$BUILD"
+javac -d "$BUILD/main" $(find ExerciceMonteCarlo/src -name '*.java')
+javac --add-modules jdk.incubator.vector -cp "$BUILD/main" -d "$BUILD/vector" ExerciceMonteCarloVector/src/*.java
+# The JMH annotation processor, found on the class path, generates the benchmark classes and their list
+javac -cp "$BUILD/main:$JMH_CP" -d "$BUILD/benchmarks" $(find ExerciceMonteCarloBenchmarks/src -name '*.java')
+
+java --add-modules jdk.incubator.vector -cp "$BUILD/main:$BUILD/vector:$BUILD/benchmarks:$JMH_CP" \
+    benchmarks.BenchmarkRunner "$@"
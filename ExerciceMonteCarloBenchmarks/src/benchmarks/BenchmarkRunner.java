@@ -0,0 +1,47 @@
+package benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the benchmarks of this module and writes their results in JSON, so that successive versions of the engine
+ * can be compared.
+ * <p>
+ * Arguments are an optional regular expression selecting the benchmarks, all of them by default, and an optional
+ * result file, jmh-results.json by default. The benchmarks run in forked JVMs with the same JVM options and class path
+ * as the runner, so the runner should be started with --add-modules jdk.incubator.vector and the classes of
+ * ExerciceMonteCarloVector on its class path to measure the vectorized experiments. Outside of the IDE,
+ * ExerciceMonteCarloBenchmarks/run-benchmarks.sh builds the modules with javac and starts the runner this way.
+ */
+public class BenchmarkRunner {
+
+	/**
+	 * Private constructor. Makes it impossible to instantiate.
+	 */
+	private BenchmarkRunner() {
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		String include = args.length > 0 ? args[0] : "benchmarks\\..*";
+		String resultFile = args.length > 1 ? args[1] : "jmh-results.json";
+
+		Options options = new OptionsBuilder()
+				.include(include)
+				.forks(1)
+				.warmupIterations(3)
+				.warmupTime(TimeValue.seconds(1))
+				.measurementIterations(5)
+				.measurementTime(TimeValue.seconds(1))
+				.timeUnit(TimeUnit.SECONDS)
+				.resultFormat(ResultFormatType.JSON)
+				.result(resultFile)
+				.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,60 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import statistics.ConcurrentStatCollector;
+import statistics.StatCollector;
+
+import java.util.SplittableRandom;
+
+/**
+ * Throughput of a collector shared by all the benchmark threads, in observations per second: a {@link StatCollector}
+ * guarded by a single lock against a {@link ConcurrentStatCollector}. Run with -t to vary the number of threads; the
+ * striped collector should scale with it while the locked one does not.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class ConcurrentStatCollectorBenchmark {
+	private static final int N = 4096;  // number of observations per invocation
+
+	private final double[] values = new double[N];
+	private final StatCollector locked = new StatCollector();
+	private final ConcurrentStatCollector striped = new ConcurrentStatCollector();
+
+	@Setup
+	public void setup() {
+		SplittableRandom rnd = new SplittableRandom(0x1350185);
+		for (int i = 0; i < N; ++i) {
+			values[i] = rnd.nextDouble() * 12.0;
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(N)
+	public void lockedAdd() {
+		for (int i = 0; i < N; ++i) {
+			synchronized (locked) {
+				locked.add(values[i]);
+			}
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(N)
+	public void stripedAdd() {
+		for (int i = 0; i < N; ++i) {
+			striped.add(values[i]);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(N)
+	public void stripedAddAll() {
+		striped.addAll(values, N);
+	}
+}
@@ -0,0 +1,94 @@
+package benchmarks;
+
+import montecarlo.Ziggurat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import statistics.InverseStdNormalCDF;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Throughput of the Ziggurat samplers, in variates per second, compared with the other ways of drawing normal and
+ * exponential variates: the polar method of Random.nextGaussian(), the default methods of RandomGenerator, the
+ * inverse CDF table and the inversion of the exponential CDF.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+public class ContinuousSamplingBenchmark {
+	private static final int N = 4096;  // number of variates drawn per invocation
+
+	private final double[] out = new double[N];
+	private Random random;
+	private SplittableRandom rnd;
+
+	@Setup
+	public void setup() {
+		random = new Random(0x1350185);
+		rnd = new SplittableRandom(0x1350185);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(N)
+	public double[] gaussianPolarRandom() {
+		for (int i = 0; i < N; ++i) {
+			out[i] = random.nextGaussian();
+		}
+		return out;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(N)
+	public double[] gaussianRandomGenerator() {
+		for (int i = 0; i < N; ++i) {
+			out[i] = rnd.nextGaussian();
+		}
+		return out;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(N)
+	public double[] gaussianInverseTable() {
+		for (int i = 0; i < N; ++i) {
+			out[i] = InverseStdNormalCDF.getQuantile(rnd.nextDouble());
+		}
+		return out;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(N)
+	public double[] gaussianZiggurat() {
+		Ziggurat.fillGaussian(rnd, out, N);
+		return out;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(N)
+	public double[] exponentialInversion() {
+		for (int i = 0; i < N; ++i) {
+			out[i] = -Math.log(1.0 - rnd.nextDouble());
+		}
+		return out;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(N)
+	public double[] exponentialRandomGenerator() {
+		for (int i = 0; i < N; ++i) {
+			out[i] = rnd.nextExponential();
+		}
+		return out;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(N)
+	public double[] exponentialZiggurat() {
+		Ziggurat.fillExponential(rnd, out, N);
+		return out;
+	}
+}
@@ -0,0 +1,80 @@
+package benchmarks;
+
+import montecarlo.AliasTable;
+import montecarlo.GuideTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+
+/**
+ * Throughput of the discrete samplers, in values per second, compared with a sequential search of the cumulative
+ * distribution function, for distributions with an increasing number of values.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+public class DiscreteSamplingBenchmark {
+	private static final int N = 4096;  // number of values drawn per invocation
+
+	@Param({"4", "37", "1024"})
+	public int size;
+
+	private double[] cumulative;
+	private AliasTable alias;
+	private GuideTable guide;
+	private SplittableRandom rnd;
+	private final int[] out = new int[N];
+
+	@Setup
+	public void setup() {
+		rnd = new SplittableRandom(0x1350185);
+		double[] weights = new double[size];
+		for (int i = 0; i < size; ++i) {
+			weights[i] = 1.0 + rnd.nextDouble();
+		}
+		alias = new AliasTable(weights);
+		guide = new GuideTable(weights);
+
+		cumulative = new double[size];
+		double sum = 0.0;
+		for (int i = 0; i < size; ++i) {
+			sum += alias.getProbability(i);
+			cumulative[i] = sum;
+		}
+		cumulative[size - 1] = 1.0;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(N)
+	public int[] sequentialSearch() {
+		for (int i = 0; i < N; ++i) {
+			double u = rnd.nextDouble();
+			int value = 0;
+			while (cumulative[value] <= u) {
+				++value;
+			}
+			out[i] = value;
+		}
+		return out;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(N)
+	public int[] guideTable() {
+		guide.sample(rnd, out, N);
+		return out;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(N)
+	public int[] aliasTable() {
+		alias.sample(rnd, out, N);
+		return out;
+	}
+}
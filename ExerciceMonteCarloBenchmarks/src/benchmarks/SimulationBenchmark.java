@@ -0,0 +1,56 @@
+package benchmarks;
+
+import montecarlo.Experiment;
+import montecarlo.Experiments;
+import montecarlo.MonteCarloSimulation;
+import montecarlo.RandomGenerators;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import statistics.StatCollector;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Throughput of {@link MonteCarloSimulation#simulateNRuns} in runs per second, for each experiment of the exercise
+ * and several pseudo-random number generators.
+ * <p>
+ * The experiments are in the default package and are therefore created by reflection.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+public class SimulationBenchmark {
+	private static final int RUNS = 100_000;  // number of runs per invocation
+
+	@Param({"GoBigOrGoHome", "GoBigOrGoHomeMultiStep", "GAcceptReject", "GUniformSample", "GTriangleSample"})
+	public String experiment;
+
+	@Param({"Random", "SplittableRandom", "L64X128MixRandom", "Xoshiro256PlusPlus"})
+	public String generator;
+
+	private Experiment exp;
+	private RandomGenerator rnd;
+
+	@Setup
+	public void setup() {
+		switch (experiment) {
+			case "GoBigOrGoHome", "GoBigOrGoHomeMultiStep" -> exp = Experiments.create(experiment, Double.toString(18.0 / 37.0), "5");
+			case "GTriangleSample" -> exp = Experiments.create(experiment, "6");
+			default -> exp = Experiments.create(experiment, "0", "6", "2");
+		}
+		rnd = RandomGenerators.create(generator, 0x1350185);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(RUNS)
+	public double simulateNRuns() {
+		StatCollector stat = new StatCollector();
+		MonteCarloSimulation.simulateNRuns(exp, RUNS, rnd, stat);
+		return stat.getAverage();
+	}
+}
@@ -0,0 +1,71 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import statistics.InverseStdNormalCDF;
+import statistics.QuantileSketchCollector;
+import statistics.StatCollector;
+
+import java.util.SplittableRandom;
+
+/**
+ * Throughput of the basic operations of the statistics package, in operations per second: adding observations to a
+ * {@link StatCollector} one by one and in blocks, adding blocks to a {@link QuantileSketchCollector}, and computing
+ * quantiles of the standard normal distribution.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+public class StatCollectorBenchmark {
+	private static final int N = 4096;  // number of observations or probabilities per invocation
+
+	private final double[] values = new double[N];
+	private final double[] probabilities = new double[N];
+	private final StatCollector stat = new StatCollector();
+	private final QuantileSketchCollector sketch = new QuantileSketchCollector();
+
+	@Setup
+	public void setup() {
+		SplittableRandom rnd = new SplittableRandom(0x1350185);
+		for (int i = 0; i < N; ++i) {
+			values[i] = rnd.nextDouble() * 12.0;
+			probabilities[i] = rnd.nextDouble(0.001, 0.999);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(N)
+	public double add() {
+		for (int i = 0; i < N; ++i) {
+			stat.add(values[i]);
+		}
+		return stat.getAverage();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(N)
+	public double addAll() {
+		stat.addAll(values, N);
+		return stat.getAverage();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(N)
+	public double sketchAddAll() {
+		sketch.addAll(values, N);
+		return sketch.getAverage();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(N)
+	public void getQuantile(Blackhole blackhole) {
+		for (int i = 0; i < N; ++i) {
+			blackhole.consume(InverseStdNormalCDF.getQuantile(probabilities[i]));
+		}
+	}
+}
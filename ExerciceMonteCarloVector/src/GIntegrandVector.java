@@ -0,0 +1,49 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// SIMD kernels for the integrand of GIntegrand, loaded by reflection when the jdk.incubator.vector module is available.
+//
+// This class is compiled apart from ExerciceMonteCarlo, with --add-modules jdk.incubator.vector, so that the rest of
+// the project builds on any JDK. It is used as soon as its module is on the class path.
+final class GIntegrandVector implements GIntegrand.Kernels {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    GIntegrandVector() {
+    }
+
+    // Same operations as GIntegrand.g, in the same order, on all the lanes at once
+    private static DoubleVector g(DoubleVector x) {
+        DoubleVector exp = x.mul(-0.125).lanewise(VectorOperators.EXP);
+        DoubleVector sin = x.mul(Math.PI).mul(0.5).lanewise(VectorOperators.SIN).abs();
+        DoubleVector sqrt = x.neg().add(6.0).sqrt();
+        return exp.mul(sin).mul(sqrt);
+    }
+
+    @Override
+    public void evaluate(double[] x, double scale, double[] out, int len) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(len); i < bound; i += SPECIES.length()) {
+            g(DoubleVector.fromArray(SPECIES, x, i)).mul(scale).intoArray(out, i);
+        }
+        for (; i < len; i++) {
+            out[i] = scale * GIntegrand.g(x[i]);
+        }
+    }
+
+    @Override
+    public void acceptReject(double[] x, double[] y, double hit, double[] out, int len) {
+        DoubleVector zero = DoubleVector.zero(SPECIES);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(len); i < bound; i += SPECIES.length()) {
+            DoubleVector gx = g(DoubleVector.fromArray(SPECIES, x, i));
+            VectorMask<Double> accepted = DoubleVector.fromArray(SPECIES, y, i).compare(VectorOperators.LE, gx);
+            zero.blend(hit, accepted).intoArray(out, i);
+        }
+        for (; i < len; i++) {
+            out[i] = y[i] <= GIntegrand.g(x[i]) ? hit : 0.0;
+        }
+    }
+}